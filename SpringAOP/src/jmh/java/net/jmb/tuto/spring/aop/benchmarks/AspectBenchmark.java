@@ -0,0 +1,66 @@
+package net.jmb.tuto.spring.aop.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import net.jmb.tuto.spring.aop.SpringAopAspectJApplication;
+import net.jmb.tuto.spring.aop.beans.Operations;
+import net.jmb.tuto.spring.aop.beans.OperationsInterface;
+
+/**
+ * Coût de l'aspect <code>AspectExample</code> : appel direct d'<code>Operations</code>
+ * et appel via le proxy de <code>SpringAopAspectJApplication</code> (réécriture des arguments, log désactivé)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AspectBenchmark {
+
+	AnnotationConfigApplicationContext context;
+	OperationsInterface unadvised;
+	OperationsInterface advised;
+	Double[] nombres = { 1d, 2d, 3d, 4d, 5d, 6d, 7d, 8d, 9d, 10d, 11d, 12d, 13d, 14d, 15d, 16d };
+
+	@Setup
+	public void setUp() {
+		((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+		System.setProperty("test", "benchmark");
+		context = new AnnotationConfigApplicationContext(SpringAopAspectJApplication.class);
+		advised = context.getBean(OperationsInterface.class);
+		unadvised = new Operations();
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public double unadvised() {
+		return unadvised.sommeDesCarres(nombres);
+	}
+
+	@Benchmark
+	public double advised() {
+		return advised.sommeDesCarres(nombres);
+	}
+
+}
@@ -0,0 +1,73 @@
+package net.jmb.tuto.spring.aop.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.jmb.tuto.spring.aop.beans.AsyncOperations;
+import net.jmb.tuto.spring.aop.beans.Operations;
+
+/**
+ * Débit de petites sommes de carrés (16 valeurs) demandées par 8 threads : appel synchrone,
+ * <code>CompletableFuture</code> par appel et regroupement par <code>SommeDesCarresBatcher</code>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class BatchingBenchmark {
+
+	Operations operations;
+	AsyncOperations asyncOperations;
+	double[] nombres;
+	Double[] boxedNombres;
+
+	@Setup
+	public void setUp() {
+		operations = new Operations();
+		asyncOperations = new AsyncOperations(operations);
+		Random random = new Random(42);
+		nombres = new double[16];
+		boxedNombres = new Double[16];
+		for (int i = 0; i < nombres.length; i++) {
+			nombres[i] = random.nextDouble();
+			boxedNombres[i] = nombres[i];
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws InterruptedException {
+		asyncOperations.destroy();
+	}
+
+	@Benchmark
+	public double synchronous() {
+		return operations.sommeDesCarres(nombres);
+	}
+
+	@Benchmark
+	public double asyncPerCall() {
+		return asyncOperations.sommeDesCarres(boxedNombres).join();
+	}
+
+	@Benchmark
+	public double batched() {
+		return asyncOperations.sommeDesCarres(nombres).join();
+	}
+
+}
@@ -0,0 +1,115 @@
+package net.jmb.tuto.spring.aop.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import net.jmb.tuto.spring.aop.beans.Operations;
+import net.jmb.tuto.spring.aop.beans.OperationsInterface;
+import net.jmb.tuto.spring.aop.pointcut.DynamicMatchCache;
+import net.jmb.tuto.spring.aop.pointcut.MatchCachingPointcut;
+
+/**
+ * Coût d'invocation d'un proxy portant (après <code>ExposeInvocationInterceptor</code>, comme l'auto-proxy AspectJ) un intercepteur neutre sur <code>carreDeLaSomme(Double...)</code> :
+ * <ul>
+ * <li>proxy JDK et proxy CGLIB, avec un pointcut statique (<code>NameMatchMethodPointcut</code> de <code>SpringAopAPIApplication</code>)
+ * <li>pointcut AspectJ statique (<code>execution</code> seul) et dynamique (<code>args(...)</code> de <code>AspectExample</code>),
+ * sans et avec <code>DynamicMatchCache</code>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProxyBenchmark {
+
+	static final String EXECUTION = "execution(double net.jmb..Oper*.*(..))";
+	static final String DYNAMIC = EXECUTION + " && (args(Double, ..) || args(Double[], ..))";
+
+	OperationsInterface target;
+	OperationsInterface jdkProxy;
+	OperationsInterface cglibProxy;
+	OperationsInterface staticAspectJ;
+	OperationsInterface dynamicAspectJ;
+	OperationsInterface cachedDynamicAspectJ;
+	Double[] nombres = { 1d, 2d, 3d, 4d };
+
+	@Setup
+	public void setUp() {
+		((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+		target = new Operations();
+		NameMatchMethodPointcut namePointcut = new NameMatchMethodPointcut();
+		namePointcut.setMappedNames("*Carre*", "*carre*");
+		jdkProxy = proxy(namePointcut, false);
+		cglibProxy = proxy(namePointcut, true);
+		staticAspectJ = proxy(aspectJPointcut(EXECUTION), false);
+		dynamicAspectJ = proxy(aspectJPointcut(DYNAMIC), false);
+		cachedDynamicAspectJ = proxy(new MatchCachingPointcut(aspectJPointcut(DYNAMIC), new DynamicMatchCache()), false);
+	}
+
+	@Benchmark
+	public double direct() {
+		return target.carreDeLaSomme(nombres);
+	}
+
+	@Benchmark
+	public double jdkProxy() {
+		return jdkProxy.carreDeLaSomme(nombres);
+	}
+
+	@Benchmark
+	public double cglibProxy() {
+		return cglibProxy.carreDeLaSomme(nombres);
+	}
+
+	@Benchmark
+	public double staticAspectJPointcut() {
+		return staticAspectJ.carreDeLaSomme(nombres);
+	}
+
+	@Benchmark
+	public double dynamicAspectJPointcut() {
+		return dynamicAspectJ.carreDeLaSomme(nombres);
+	}
+
+	@Benchmark
+	public double cachedDynamicAspectJPointcut() {
+		return cachedDynamicAspectJ.carreDeLaSomme(nombres);
+	}
+
+	static AspectJExpressionPointcut aspectJPointcut(String expression) {
+		AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+		pointcut.setExpression(expression);
+		return pointcut;
+	}
+
+	OperationsInterface proxy(Pointcut pointcut, boolean proxyTargetClass) {
+		ProxyFactory proxyFactory = new ProxyFactory(target);
+		proxyFactory.setProxyTargetClass(proxyTargetClass);
+		proxyFactory.addAdvisor(ExposeInvocationInterceptor.ADVISOR);
+		proxyFactory.addAdvisor(new DefaultPointcutAdvisor(pointcut, (MethodInterceptor) invocation -> invocation.proceed()));
+		return (OperationsInterface) proxyFactory.getProxy();
+	}
+
+}
@@ -0,0 +1,80 @@
+package net.jmb.tuto.spring.aop.benchmarks;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.jmb.tuto.spring.aop.beans.Execution;
+import net.jmb.tuto.spring.aop.beans.Operations;
+import net.jmb.tuto.spring.aop.beans.Summation;
+
+/**
+ * Réductions d'<code>Operations</code> par taille de tableau : implémentation d'origine (stream de <code>Double</code>),
+ * boucles séquentielles et fork/join, pour situer la taille à partir de laquelle le parallèle est rentable
+ * sur la machine cible (<code>operations.parallelThreshold</code>, sans lequel le mode <code>AUTO</code> reste séquentiel)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReductionBenchmark {
+
+	@Param({ "1000", "10000", "100000", "1000000", "10000000" })
+	int size;
+
+	Operations operations;
+	double[] values;
+	Double[] boxedValues;
+
+	@Setup
+	public void setUp() {
+		operations = new Operations();
+		Random random = new Random(42);
+		values = new double[size];
+		boxedValues = new Double[size];
+		for (int i = 0; i < size; i++) {
+			values[i] = random.nextDouble() * 100 - 50;
+			boxedValues[i] = values[i];
+		}
+	}
+
+	@Benchmark
+	public double boxedStream() {
+		return Arrays.stream(boxedValues).reduce((sum, nombre) -> sum + nombre * nombre).get();
+	}
+
+	@Benchmark
+	public double sequential() {
+		return operations.sommeDesCarres(values, Summation.SIMPLE, Execution.SEQUENTIAL);
+	}
+
+	@Benchmark
+	public double parallel() {
+		return operations.sommeDesCarres(values, Summation.SIMPLE, Execution.PARALLEL);
+	}
+
+	@Benchmark
+	public double sequentialCompensated() {
+		return operations.sommeDesCarres(values, Summation.COMPENSATED, Execution.SEQUENTIAL);
+	}
+
+	@Benchmark
+	public double parallelCompensated() {
+		return operations.sommeDesCarres(values, Summation.COMPENSATED, Execution.PARALLEL);
+	}
+
+}
@@ -0,0 +1,55 @@
+package net.jmb.tuto.spring.aop.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import net.jmb.tuto.spring.aop.SpringAopAPIApplication;
+import net.jmb.tuto.spring.aop.SpringAopAspectJApplication;
+
+/**
+ * Démarrage et arrêt des contextes des deux applications : création des proxys et évaluation statique des pointcuts
+ * (<code>NameMatchMethodPointcut</code> d'un côté, expression AspectJ de l'autre) pour chaque méthode candidate
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+	@Setup
+	public void setUp() {
+		((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+		System.setProperty("test", "benchmark");
+	}
+
+	@Benchmark
+	public Object apiApplication() {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(SpringAopAPIApplication.class)) {
+			return context.getBeanDefinitionCount();
+		}
+	}
+
+	@Benchmark
+	public Object aspectJApplication() {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(SpringAopAspectJApplication.class)) {
+			return context.getBeanDefinitionCount();
+		}
+	}
+
+}
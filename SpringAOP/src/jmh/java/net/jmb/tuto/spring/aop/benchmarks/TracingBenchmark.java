@@ -0,0 +1,96 @@
+package net.jmb.tuto.spring.aop.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+
+import net.jmb.tuto.spring.aop.beans.Operations;
+import net.jmb.tuto.spring.aop.beans.OperationsInterface;
+import net.jmb.tuto.spring.aop.tracing.SamplingTracingInterceptor;
+
+/**
+ * Coût du traçage des invocations de <code>carreDeLaSomme(Double...)</code> derrière un proxy JDK :
+ * <ul>
+ * <li>intercepteur neutre (référence) et message de log formaté à chaque appel
+ * <li><code>SamplingTracingInterceptor</code> : toutes les invocations, 1 sur 100, 1 sur 100 limité à 1000 traces/s
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TracingBenchmark {
+
+	OperationsInterface neutral;
+	OperationsInterface logged;
+	OperationsInterface tracedAll;
+	OperationsInterface sampled;
+	OperationsInterface sampledWithBudget;
+	Double[] nombres = { 1d, 2d, 3d, 4d };
+
+	@Setup
+	public void setUp(Blackhole blackhole) {
+		neutral = proxy(invocation -> invocation.proceed());
+		logged = proxy(invocation -> {
+			long start = System.nanoTime();
+			Object rval = invocation.proceed();
+			blackhole.consume(invocation.getMethod() + ", args: " + Arrays.deepToString(invocation.getArguments())
+					+ ", retour: " + rval + ", " + (System.nanoTime() - start) + "ns");
+			return rval;
+		});
+		tracedAll = proxy(new SamplingTracingInterceptor(1024, 1, 0));
+		sampled = proxy(new SamplingTracingInterceptor(1024, 100, 0));
+		sampledWithBudget = proxy(new SamplingTracingInterceptor(1024, 100, 1000));
+	}
+
+	@Benchmark
+	public double neutral() {
+		return neutral.carreDeLaSomme(nombres);
+	}
+
+	@Benchmark
+	public double logged() {
+		return logged.carreDeLaSomme(nombres);
+	}
+
+	@Benchmark
+	public double tracedAll() {
+		return tracedAll.carreDeLaSomme(nombres);
+	}
+
+	@Benchmark
+	public double sampled() {
+		return sampled.carreDeLaSomme(nombres);
+	}
+
+	@Benchmark
+	public double sampledWithBudget() {
+		return sampledWithBudget.carreDeLaSomme(nombres);
+	}
+
+	OperationsInterface proxy(MethodInterceptor interceptor) {
+		NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+		pointcut.setMappedNames("*Carre*", "*carre*");
+		ProxyFactory proxyFactory = new ProxyFactory(new Operations());
+		proxyFactory.addAdvisor(new DefaultPointcutAdvisor(pointcut, interceptor));
+		return (OperationsInterface) proxyFactory.getProxy();
+	}
+
+}
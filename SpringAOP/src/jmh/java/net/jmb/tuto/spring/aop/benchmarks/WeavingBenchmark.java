@@ -0,0 +1,80 @@
+package net.jmb.tuto.spring.aop.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import net.jmb.tuto.spring.aop.SpringAopAspectJApplication;
+import net.jmb.tuto.spring.aop.SpringAopCompileTimeWeavingApplication;
+import net.jmb.tuto.spring.aop.beans.Operations;
+import net.jmb.tuto.spring.aop.beans.OperationsInterface;
+
+/**
+ * <code>AspectExample</code> appliqué par proxy (<code>SpringAopAspectJApplication</code>) ou tissé à la compilation
+ * (<code>SpringAopCompileTimeWeavingApplication</code>) : coût par appel et démarrage du contexte.
+ * <p>
+ * Le mode dépend du build : à exécuter sans puis avec le profil <code>ajc</code> et comparer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WeavingBenchmark {
+
+	static final boolean WOVEN = Arrays.stream(Operations.class.getDeclaredFields())
+			.anyMatch(field -> field.getName().startsWith("ajc$"));
+
+	AnnotationConfigApplicationContext context;
+	OperationsInterface operations;
+	Double[] nombres = { 1d, 2d, 3d, 4d, 5d, 6d, 7d, 8d, 9d, 10d, 11d, 12d, 13d, 14d, 15d, 16d };
+
+	@Setup
+	public void setUp() {
+		((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+		System.setProperty("test", "benchmark");
+		context = newContext();
+		operations = context.getBean(OperationsInterface.class);
+		System.out.println("Mode : " + (WOVEN ? "ajc" : "proxy") + ", sommeDesCarres = " + operations.sommeDesCarres(nombres));
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public double advisedCall() {
+		return operations.sommeDesCarres(nombres);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Object startup() {
+		try (AnnotationConfigApplicationContext context = newContext()) {
+			return context.getBeanDefinitionCount();
+		}
+	}
+
+	static AnnotationConfigApplicationContext newContext() {
+		return new AnnotationConfigApplicationContext(
+				WOVEN ? SpringAopCompileTimeWeavingApplication.class : SpringAopAspectJApplication.class);
+	}
+
+}
@@ -2,24 +2,33 @@ package net.jmb.tuto.spring.aop;
 
 import java.util.Arrays;
 
-import org.aopalliance.intercept.MethodInterceptor;
-import org.aopalliance.intercept.MethodInvocation;
 import org.springframework.aop.Advisor;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.aop.framework.ProxyFactoryBean;
 import org.springframework.aop.framework.autoproxy.BeanNameAutoProxyCreator;
 import org.springframework.aop.support.DefaultBeanFactoryPointcutAdvisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.aop.support.NameMatchMethodPointcut;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableMBeanExport;
 import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 
 import net.jmb.tuto.spring.aop.beans.OperationsInterface;
+import net.jmb.tuto.spring.aop.cache.Memoizable;
+import net.jmb.tuto.spring.aop.cache.MemoizingInterceptor;
+import net.jmb.tuto.spring.aop.metrics.MethodMetricsInterceptor;
+import net.jmb.tuto.spring.aop.tracing.SamplingTracingInterceptor;
 
 @Configuration
 @ComponentScan(basePackages = "net.jmb.tuto.spring.aop.beans")
+@EnableMBeanExport
 public class SpringAopAPIApplication {	
 
 	public static void main(String[] args) {
@@ -30,6 +39,13 @@ public class SpringAopAPIApplication {
 		applicationContext.getBean(OperationsInterface.class).sommeDesCarres(1d, 2d, 3d, 4d, 5d);		
 		applicationContext.getBean(OperationsInterface.class).carreDeLaSomme(1d, 2d, 3d, 4d, 5d);
 		
+		applicationContext.getBean(OperationsInterface.class).sommeDesCarres(1d, 2d, 3d, 4d, 5d);
+		
+		applicationContext.getBean(MethodMetricsInterceptor.class).snapshot().values().forEach(System.out::println);
+		System.out.println(applicationContext.getBean(MemoizingInterceptor.class));
+		applicationContext.getBeanProvider(SamplingTracingInterceptor.class)
+			.ifAvailable(tracing -> Arrays.stream(tracing.dump()).forEach(System.out::println));
+		
 		applicationContext.close();
 	}
 	
@@ -49,11 +65,18 @@ public class SpringAopAPIApplication {
 //		return (OperationsInterface) proxyFactory.getProxy();
 //	}	
 	
+	/**
+	 * <code>tracingAdvisor</code> n'est défini qu'avec le profil {@link SamplingTracingInterceptor#PROFILE}
+	 */
 	@Bean
-	BeanNameAutoProxyCreator operationsProxy2() {		
+	BeanNameAutoProxyCreator operationsProxy2(Environment environment) {		
 		BeanNameAutoProxyCreator proxyFactory = new BeanNameAutoProxyCreator();
 		proxyFactory.setBeanNames("operations");
-		proxyFactory.setInterceptorNames("operationsAdvisor");
+		if (environment.acceptsProfiles(Profiles.of(SamplingTracingInterceptor.PROFILE))) {
+			proxyFactory.setInterceptorNames("operationsAdvisor", "tracingAdvisor", "memoizingAdvisor");
+		} else {
+			proxyFactory.setInterceptorNames("operationsAdvisor", "memoizingAdvisor");
+		}
 		return proxyFactory;
 	}
 	
@@ -70,17 +93,38 @@ public class SpringAopAPIApplication {
 	}
 	
 	@Bean
-	MethodInterceptor operationsMethodInterceptor() {
-		return new MethodInterceptor() {			
-			@Override
-			public Object invoke(MethodInvocation invocation) throws Throwable {
-				System.out.println("\nMethodInvocation=[" + invocation + "]");
-				System.out.println("Args: " + Arrays.deepToString(invocation.getArguments()));
-		        Object rval = invocation.proceed();
-		        System.out.println("Invocation returned : " + rval);
-		        return rval;
-			}
-		};
+	MethodMetricsInterceptor operationsMethodInterceptor() {
+		return new MethodMetricsInterceptor();
+	}
+	
+	/**
+	 * Traçage échantillonné des mêmes méthodes que <code>operationsAdvisor</code>
+	 */
+	@Bean
+	@Profile(SamplingTracingInterceptor.PROFILE)
+	Advisor tracingAdvisor() {
+		NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+		pointcut.setMappedNames("*Carre*", "*carre*");
+		return new DefaultPointcutAdvisor(pointcut, tracingInterceptor());
+	}
+	
+	/**
+	 * 1 invocation sur 100, au plus 1000 traces/s
+	 */
+	@Bean
+	@Profile(SamplingTracingInterceptor.PROFILE)
+	SamplingTracingInterceptor tracingInterceptor() {
+		return new SamplingTracingInterceptor(1024, 100, 1000);
+	}
+	
+	@Bean
+	Advisor memoizingAdvisor() {
+		return new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(null, Memoizable.class, true), memoizingInterceptor());
+	}
+	
+	@Bean
+	MemoizingInterceptor memoizingInterceptor() {
+		return new MemoizingInterceptor();
 	}
 
 }
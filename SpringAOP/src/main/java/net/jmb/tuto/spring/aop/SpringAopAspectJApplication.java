@@ -1,20 +1,28 @@
 package net.jmb.tuto.spring.aop;
 
 import java.util.Arrays;
-import java.util.stream.Collectors;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import net.jmb.tuto.spring.aop.beans.OperationsInterface;
+import net.jmb.tuto.spring.aop.pointcut.DynamicMatchCachingPostProcessor;
+import net.jmb.tuto.spring.aop.tracing.SamplingTracingInterceptor;
 
 @Configuration
 @ComponentScan(basePackages = "net.jmb.tuto.spring.aop.beans")
@@ -35,12 +43,49 @@ public class SpringAopAspectJApplication {
 		String message = applicationContext.getBean(SpringAopAspectJApplication.class).message;
 		System.out.println(message);
 		
+		applicationContext.getBeanProvider(SamplingTracingInterceptor.class)
+			.ifAvailable(tracing -> Arrays.stream(tracing.dump()).forEach(System.out::println));
+		
 		applicationContext.close();
 	}
 	
+	/**
+	 * Mise en cache de la correspondance dynamique args(...) du pointcut d'AspectExample
+	 */
+	@Bean
+	static DynamicMatchCachingPostProcessor dynamicMatchCachingPostProcessor() {
+		return new DynamicMatchCachingPostProcessor();
+	}
+	
+	/**
+	 * Traçage échantillonné des opérations : pointcut statique (sans args(...)), évalué une fois par méthode
+	 */
+	@Bean
+	@Profile(SamplingTracingInterceptor.PROFILE)
+	Advisor tracingAdvisor() {
+		AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+		pointcut.setExpression("execution(double net.jmb..Oper*.*(..))");
+		return new DefaultPointcutAdvisor(pointcut, tracingInterceptor());
+	}
+	
+	/**
+	 * 1 invocation sur 100, au plus 1000 traces/s
+	 */
+	@Bean
+	@Profile(SamplingTracingInterceptor.PROFILE)
+	SamplingTracingInterceptor tracingInterceptor() {
+		return new SamplingTracingInterceptor(1024, 100, 1000);
+	}
+	
+	/**
+	 * Aspect statique pour pouvoir aussi être tissé à la compilation par ajc (profil Maven <code>ajc</code>,
+	 * voir <code>SpringAopCompileTimeWeavingApplication</code>)
+	 */
 	@Aspect
 	@Component
-	public class AspectExample {
+	public static class AspectExample {
+		
+		private final Log logger = LogFactory.getLog(AspectExample.class);
 		
 		@Pointcut("execution(double net.jmb..Oper*.*(..))")
 		public void operationPointcut() {}
@@ -49,21 +94,33 @@ public class SpringAopAspectJApplication {
 //		@Around(value = "within(net.jmb..*)")
 //		@Around(value = "target(net.jmb.tuto.spring.aop.SpringAopAPIApplication.OperationsInterface)")
 //		@Around(value = "this(net.jmb.tuto.spring.aop.SpringAopAPIApplication.OperationsInterface)")
-		public Number wrapOperation(ProceedingJoinPoint pjp) throws Throwable {
-			System.out.println("\nJoinPoint: " + pjp);
-			System.out.println("Args: " + Arrays.deepToString(pjp.getArgs()));
-			
-			Double[] array = (Double[]) Arrays.stream(pjp.getArgs())
-				.flatMap(arg -> arg.getClass().isArray() ? Arrays.stream((Object[])arg) : Arrays.stream(new Object[] {arg}))
-				.map(arg -> (double) arg + 1)
-				.collect(Collectors.toList())
-				.toArray(new Double[] {});
+		public Object wrapOperation(ProceedingJoinPoint pjp) throws Throwable {
+			boolean debug = logger.isDebugEnabled();
+			if (debug) {
+				logger.debug("JoinPoint: " + pjp + ", args: " + Arrays.deepToString(pjp.getArgs()));
+			}
 			
-			Object[] args = array.length > 1 ? new Object[] {array} : array;
+			// getArgs() renvoie une copie : réécriture sur place, sans modifier les tableaux de l'appelant
+			Object[] args = pjp.getArgs();
+			for (int i = 0; i < args.length; i++) {
+				Object arg = args[i];
+				if (arg instanceof Double) {
+					args[i] = (Double) arg + 1;
+				} else if (arg instanceof Double[]) {
+					Double[] nombres = (Double[]) arg;
+					Double[] incremented = new Double[nombres.length];
+					for (int j = 0; j < nombres.length; j++) {
+						incremented[j] = nombres[j] + 1;
+					}
+					args[i] = incremented;
+				}
+			}
 			Object proceed = pjp.proceed(args);
 			
-			System.out.println("Retour proceed(): " + proceed);
-			return (Number) proceed;
+			if (debug) {
+				logger.debug("Retour proceed(): " + proceed);
+			}
+			return proceed;
 		}		
 	}
 
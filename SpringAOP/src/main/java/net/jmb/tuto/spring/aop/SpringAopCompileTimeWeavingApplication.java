@@ -0,0 +1,31 @@
+package net.jmb.tuto.spring.aop;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+
+import net.jmb.tuto.spring.aop.beans.OperationsInterface;
+
+/**
+ * Application équivalente à <code>SpringAopAspectJApplication</code>, sans proxy : <code>AspectExample</code>
+ * est tissé dans <code>Operations</code> à la compilation (profil Maven <code>ajc</code>).
+ * <p>
+ * Sans le profil <code>ajc</code>, les opérations s'exécutent sans l'aspect ; avec, les applications à base de proxys
+ * appliqueraient l'aspect deux fois (tissage + proxy).
+ */
+@Configuration
+@ComponentScan(basePackages = "net.jmb.tuto.spring.aop.beans")
+public class SpringAopCompileTimeWeavingApplication {
+
+	public static void main(String[] args) {
+		
+		AnnotationConfigApplicationContext applicationContext = new AnnotationConfigApplicationContext(SpringAopCompileTimeWeavingApplication.class);
+		
+		applicationContext.getBean(OperationsInterface.class).carre(5d);		
+		applicationContext.getBean(OperationsInterface.class).sommeDesCarres(1d, 2d, 3d, 4d, 5d);		
+		applicationContext.getBean(OperationsInterface.class).carreDeLaSomme(1d, 2d, 3d, 4d, 5d);
+		
+		applicationContext.close();
+	}
+
+}
@@ -0,0 +1,114 @@
+package net.jmb.tuto.spring.aop.beans;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Variante asynchrone d'<code>OperationsInterface</code> :
+ * <ul>
+ * <li>les opérations sur <code>Double</code> sont exécutées par l'<code>executor</code> via le bean <code>OperationsInterface</code>
+ * (et donc ses greffons éventuels)
+ * <li>les sommes de carrés sur <code>double[]</code> passent par un <code>SommeDesCarresBatcher</code> qui regroupe
+ * les demandes concurrentes en un seul calcul, sans passer par les greffons, avec le mode de sommation courant
+ * de la cible (<code>getSummation()</code>, lu à chaque lot)
+ * </ul>
+ * Le <code>SommeDesCarresBatcher</code> (et son thread) n'est créé qu'au premier appel, avec les clés
+ * <code>operations.batch.maxSize</code> et <code>operations.batch.maxWaitMicros</code> de la configuration
+ * de l'<code>Operations</code> cible (<code>Operations.getConfiguration()</code>).
+ */
+@Component
+public class AsyncOperations implements DisposableBean {
+
+	public static final int DEFAULT_BATCH_MAX_SIZE = 256;
+	public static final long DEFAULT_BATCH_MAX_WAIT_MICROS = 100;
+
+	private final OperationsInterface operations;
+	private Executor executor = ForkJoinPool.commonPool();
+
+	private volatile SommeDesCarresBatcher batcher;
+	private boolean destroyed;
+
+	@Autowired
+	public AsyncOperations(OperationsInterface operations) {
+		this.operations = operations;
+	}
+
+	@Override
+	public void destroy() throws InterruptedException {
+		SommeDesCarresBatcher current;
+		synchronized (this) {
+			destroyed = true;
+			current = batcher;
+		}
+		if (current != null) {
+			current.close();
+		}
+	}
+
+	private SommeDesCarresBatcher batcher() {
+		SommeDesCarresBatcher current = batcher;
+		if (current == null) {
+			synchronized (this) {
+				if (destroyed) {
+					throw new IllegalStateException("AsyncOperations arrêté");
+				}
+				current = batcher;
+				if (current == null) {
+					Map<String, String> configuration = getConfiguration();
+					String maxSize = configuration.get("operations.batch.maxSize");
+					String maxWaitMicros = configuration.get("operations.batch.maxWaitMicros");
+					current = new SommeDesCarresBatcher(
+							maxSize != null ? Integer.parseInt(maxSize.trim()) : DEFAULT_BATCH_MAX_SIZE,
+							maxWaitMicros != null ? Long.parseLong(maxWaitMicros.trim()) : DEFAULT_BATCH_MAX_WAIT_MICROS,
+							TimeUnit.MICROSECONDS, operations::getSummation);
+					batcher = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Configuration de l'<code>Operations</code> cible, derrière les éventuels proxies AOP
+	 */
+	private Map<String, String> getConfiguration() {
+		Object target = operations;
+		while (target != null && !(target instanceof Operations)) {
+			target = AopProxyUtils.getSingletonTarget(target);
+		}
+		return target != null ? ((Operations) target).getConfiguration() : Collections.emptyMap();
+	}
+
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	public CompletableFuture<Double> carre(Double nombre) {
+		return CompletableFuture.supplyAsync(() -> operations.carre(nombre), executor);
+	}
+
+	public CompletableFuture<Double> sommeDesCarres(Double... nombres) {
+		return CompletableFuture.supplyAsync(() -> operations.sommeDesCarres(nombres), executor);
+	}
+
+	public CompletableFuture<Double> carreDeLaSomme(Double... nombres) {
+		return CompletableFuture.supplyAsync(() -> operations.carreDeLaSomme(nombres), executor);
+	}
+
+	/**
+	 * Somme des carrés regroupée avec les demandes concurrentes ; le tableau ne doit pas être modifié avant complétion
+	 */
+	public CompletableFuture<Double> sommeDesCarres(double[] nombres) {
+		return batcher().submit(nombres);
+	}
+
+}
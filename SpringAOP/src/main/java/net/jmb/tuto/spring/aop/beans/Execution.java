@@ -0,0 +1,21 @@
+package net.jmb.tuto.spring.aop.beans;
+
+/**
+ * Mode d'exécution des réductions de <code>OperationsInterface</code>
+ */
+public enum Execution {
+
+	SEQUENTIAL,
+
+	/**
+	 * Découpage fork/join sur le pool commun
+	 */
+	PARALLEL,
+
+	/**
+	 * Parallèle au-delà du seuil de taille d'<code>Operations</code> (<code>parallelThreshold</code>, non renseigné par défaut)
+	 * et si le pool commun dispose de plusieurs threads, séquentiel sinon
+	 */
+	AUTO
+
+}
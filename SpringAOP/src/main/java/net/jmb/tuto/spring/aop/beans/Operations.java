@@ -1,36 +1,216 @@
 package net.jmb.tuto.spring.aop.beans;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.io.InputStream;
+import java.nio.DoubleBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
+import net.jmb.tuto.spring.aop.cache.Versioned;
+
+/**
+ * Opérations arithmétiques.
+ * <p>
+ * La configuration (<code>application.properties</code>) est lue une seule fois au démarrage, en une copie immuable.
+ * Si elle contient <code>operations.config.watch=true</code> et qu'il s'agit d'un fichier (et non d'une entrée de jar),
+ * elle est rechargée à chaque modification du fichier, hors du chemin d'appel des opérations.
+ * <p>
+ * Clés reconnues : <code>operations.summation</code> (SIMPLE, COMPENSATED), <code>operations.parallelThreshold</code>.
+ * <p>
+ * Le mode <code>AUTO</code> reste séquentiel tant que <code>operations.parallelThreshold</code> n'est pas renseigné :
+ * le seuil de rentabilité du fork/join n'a été mesuré que sur un seul cœur (où il n'est jamais rentable),
+ * il doit l'être sur la machine cible avec <code>ReductionBenchmark</code>.
+ */
 @Component
-public class Operations implements OperationsInterface {
+public class Operations implements OperationsInterface, Versioned, InitializingBean, DisposableBean {
+	
+	/**
+	 * Pas de seuil par défaut : <code>AUTO</code> parallèle sur option seulement
+	 */
+	public static final int DEFAULT_PARALLEL_THRESHOLD = Integer.MAX_VALUE;
+	
+	private static final Log logger = LogFactory.getLog(Operations.class);
 	
 	@Value("classpath:application.properties")
 	Resource applicationProperties;
 	
-	protected void showResource() throws IOException {
-		System.out.println("applicationProperties: " + applicationProperties);
-		System.out.println(applicationProperties.getFile().getAbsolutePath());
+	ResourceWatcher configurationWatcher;
+	
+	/**
+	 * Configuration courante, publiée en une seule écriture : un appel ne voit jamais un mélange de deux configurations
+	 */
+	volatile Settings settings = new Settings(Collections.emptyMap(), Summation.SIMPLE, DEFAULT_PARALLEL_THRESHOLD, 0);
+	
+	@Override
+	public void afterPropertiesSet() throws IOException {
+		loadConfiguration();
+		if (Boolean.parseBoolean(settings.configuration.get("operations.config.watch")) && applicationProperties.isFile()) {
+			configurationWatcher = new ResourceWatcher(applicationProperties.getFile().toPath(), this::reloadConfiguration);
+		}
+	}
+	
+	@Override
+	public void destroy() throws IOException {
+		if (configurationWatcher != null) {
+			configurationWatcher.close();
+		}
 	}
 	
-	public double carre(Double nombre) {		
+	protected synchronized void loadConfiguration() throws IOException {
+		if (applicationProperties == null || !applicationProperties.exists()) {
+			return;
+		}
+		Properties properties = new Properties();
+		try (InputStream in = applicationProperties.getInputStream()) {
+			properties.load(in);
+		}
+		Map<String, String> snapshot = new HashMap<>();
+		properties.stringPropertyNames().forEach(key -> snapshot.put(key, properties.getProperty(key)));
+		
+		Settings current = settings;
+		String summationValue = snapshot.get("operations.summation");
+		String thresholdValue = snapshot.get("operations.parallelThreshold");
+		Summation newSummation = summationValue != null ? Summation.valueOf(summationValue.trim()) : current.summation;
+		int newThreshold = thresholdValue != null ? Integer.parseInt(thresholdValue.trim()) : current.parallelThreshold;
+		
+		settings = new Settings(Collections.unmodifiableMap(snapshot), newSummation, newThreshold, current.version + 1);
+		logger.info("Configuration chargée : " + applicationProperties);
+	}
+	
+	private void reloadConfiguration() {
 		try {
-			showResource();
-		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+			loadConfiguration();
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Configuration invalide, conservation de la précédente : " + applicationProperties, e);
 		}
+	}
+	
+	/**
+	 * Copie immuable de la configuration chargée (remplacée en bloc à chaque rechargement)
+	 */
+	public Map<String, String> getConfiguration() {
+		return settings.configuration;
+	}
+	
+	public double carre(Double nombre) {		
 		return nombre * nombre;
 	}		
 	public double sommeDesCarres(Double... nombres) {
-		return Arrays.stream(nombres).reduce((sum, nombre) -> sum + nombre * nombre).get();
+		return sommeDesCarres(unbox(nombres));
 	}		
 	public double carreDeLaSomme(Double... nombres) {
-		return Math.pow(Arrays.stream(nombres).reduce((sum, nombre) -> sum + nombre).get(), 2);
+		return carreDeLaSomme(unbox(nombres));
+	}
+	
+	public double sommeDesCarres(double[] nombres) {
+		Settings current = settings;
+		return sommeDesCarres(nombres, current.summation, Execution.AUTO, current);
+	}
+	public double sommeDesCarres(double[] nombres, Summation summation) {
+		return sommeDesCarres(nombres, summation, Execution.AUTO);
+	}
+	public double sommeDesCarres(double[] nombres, Summation summation, Execution execution) {
+		return sommeDesCarres(nombres, summation, execution, settings);
+	}
+	private double sommeDesCarres(double[] nombres, Summation summation, Execution execution, Settings settings) {
+		return isParallel(nombres, execution, settings)
+				? Reductions.parallelSumOfSquares(nombres, summation)
+				: Reductions.sumOfSquares(nombres, summation);
+	}
+	public double sommeDesCarres(DoubleBuffer nombres) {
+		return Reductions.sumOfSquares(nombres, settings.summation);
+	}
+	public double carreDeLaSomme(double[] nombres) {
+		Settings current = settings;
+		return carreDeLaSomme(nombres, current.summation, Execution.AUTO, current);
+	}
+	public double carreDeLaSomme(double[] nombres, Summation summation) {
+		return carreDeLaSomme(nombres, summation, Execution.AUTO);
+	}
+	public double carreDeLaSomme(double[] nombres, Summation summation, Execution execution) {
+		return carreDeLaSomme(nombres, summation, execution, settings);
+	}
+	private double carreDeLaSomme(double[] nombres, Summation summation, Execution execution, Settings settings) {
+		double somme = isParallel(nombres, execution, settings)
+				? Reductions.parallelSum(nombres, summation)
+				: Reductions.sum(nombres, summation);
+		return somme * somme;
+	}
+	public double carreDeLaSomme(DoubleBuffer nombres) {
+		double somme = Reductions.sum(nombres, settings.summation);
+		return somme * somme;
+	}
+	
+	/**
+	 * Version des réglages, incrémentée à chaque publication : invalide les résultats mis en cache par <code>MemoizingInterceptor</code>
+	 */
+	@Override
+	public long getVersion() {
+		return settings.version;
+	}
+	
+	@Override
+	public Summation getSummation() {
+		return settings.summation;
+	}
+	
+	/**
+	 * Mode de sommation des variantes qui ne le précisent pas
+	 */
+	public synchronized void setSummation(Summation summation) {
+		Settings current = settings;
+		settings = new Settings(current.configuration, summation, current.parallelThreshold, current.version + 1);
+	}
+	
+	/**
+	 * Taille à partir de laquelle le mode <code>AUTO</code> passe en parallèle
+	 */
+	public synchronized void setParallelThreshold(int parallelThreshold) {
+		Settings current = settings;
+		settings = new Settings(current.configuration, current.summation, parallelThreshold, current.version + 1);
+	}
+	
+	protected boolean isParallel(double[] nombres, Execution execution, Settings settings) {
+		if (execution == Execution.AUTO) {
+			return nombres.length >= settings.parallelThreshold && ForkJoinPool.getCommonPoolParallelism() > 1;
+		}
+		return execution == Execution.PARALLEL;
+	}
+	
+	/**
+	 * Copie immuable de la configuration et des réglages qui en découlent
+	 */
+	static final class Settings {
+		
+		final Map<String, String> configuration;
+		final Summation summation;
+		final int parallelThreshold;
+		final long version;
+		
+		Settings(Map<String, String> configuration, Summation summation, int parallelThreshold, long version) {
+			this.configuration = configuration;
+			this.summation = summation;
+			this.parallelThreshold = parallelThreshold;
+			this.version = version;
+		}
+	}
+	
+	private static double[] unbox(Double[] nombres) {
+		double[] values = new double[nombres.length];
+		for (int i = 0; i < nombres.length; i++) {
+			values[i] = nombres[i];
+		}
+		return values;
 	}
 }
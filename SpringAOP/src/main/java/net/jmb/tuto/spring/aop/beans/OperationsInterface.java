@@ -1,8 +1,29 @@
 package net.jmb.tuto.spring.aop.beans;
 
+import java.nio.DoubleBuffer;
+
+import net.jmb.tuto.spring.aop.cache.Memoizable;
+
 public interface OperationsInterface {
 	
+	@Memoizable
 	double carre(Double nombre);
+	@Memoizable
 	double sommeDesCarres(Double... nombres);		
+	@Memoizable
 	double carreDeLaSomme(Double... nombres);
+	
+	double sommeDesCarres(double[] nombres);
+	double sommeDesCarres(double[] nombres, Summation summation);
+	double sommeDesCarres(double[] nombres, Summation summation, Execution execution);
+	double sommeDesCarres(DoubleBuffer nombres);
+	double carreDeLaSomme(double[] nombres);
+	double carreDeLaSomme(double[] nombres, Summation summation);
+	double carreDeLaSomme(double[] nombres, Summation summation, Execution execution);
+	double carreDeLaSomme(DoubleBuffer nombres);
+	
+	/**
+	 * Mode de sommation des variantes qui ne le précisent pas
+	 */
+	Summation getSummation();
 }
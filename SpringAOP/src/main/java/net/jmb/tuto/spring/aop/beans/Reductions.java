@@ -0,0 +1,196 @@
+package net.jmb.tuto.spring.aop.beans;
+
+import java.nio.DoubleBuffer;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Réductions numériques sur tableaux de <code>double</code>, sans boxing ni stream.
+ * <p>
+ * En mode <code>SIMPLE</code>, la boucle est déroulée par 4 sur des accumulateurs indépendants :
+ * les additions ne dépendent plus du résultat de la précédente et s'exécutent en parallèle dans le processeur.
+ * Le résultat peut donc différer, au dernier bit près, d'une somme strictement séquentielle.
+ * En mode <code>COMPENSATED</code>, chaque accumulateur applique la sommation de Kahan.
+ * <p>
+ * Les variantes parallèles découpent le tableau par moitiés jusqu'à <code>PARALLEL_LEAF_SIZE</code> éléments
+ * et additionnent les sommes partielles dans l'ordre du découpage : ce découpage ne dépend que de la taille
+ * du tableau, le résultat est donc identique d'une exécution à l'autre quel que soit le nombre de threads.
+ */
+public final class Reductions {
+
+	public static final int PARALLEL_LEAF_SIZE = 1 << 15;
+
+	private Reductions() {
+	}
+
+	public static double sum(double[] values, Summation summation) {
+		return sum(values, 0, values.length, summation);
+	}
+
+	public static double sumOfSquares(double[] values, Summation summation) {
+		return sumOfSquares(values, 0, values.length, summation);
+	}
+
+	/**
+	 * Somme des éléments d'indice <code>from</code> (inclus) à <code>to</code> (exclu)
+	 */
+	public static double sum(double[] values, int from, int to, Summation summation) {
+		checkRange(values.length, from, to);
+		return summation == Summation.COMPENSATED ? compensatedSum(values, from, to, false) : simpleSum(values, from, to);
+	}
+
+	/**
+	 * Somme des carrés des éléments d'indice <code>from</code> (inclus) à <code>to</code> (exclu)
+	 */
+	public static double sumOfSquares(double[] values, int from, int to, Summation summation) {
+		checkRange(values.length, from, to);
+		return summation == Summation.COMPENSATED ? compensatedSum(values, from, to, true) : simpleSumOfSquares(values, from, to);
+	}
+
+	/**
+	 * Somme des éléments restants du buffer (de <code>position</code> à <code>limit</code>), sans modifier sa position
+	 */
+	public static double sum(DoubleBuffer values, Summation summation) {
+		if (values.hasArray()) {
+			int from = values.arrayOffset() + values.position();
+			return sum(values.array(), from, from + values.remaining(), summation);
+		}
+		return bufferSum(values, false, summation == Summation.COMPENSATED);
+	}
+
+	/**
+	 * Somme des carrés des éléments restants du buffer, sans modifier sa position
+	 */
+	public static double sumOfSquares(DoubleBuffer values, Summation summation) {
+		if (values.hasArray()) {
+			int from = values.arrayOffset() + values.position();
+			return sumOfSquares(values.array(), from, from + values.remaining(), summation);
+		}
+		return bufferSum(values, true, summation == Summation.COMPENSATED);
+	}
+
+	/**
+	 * Somme calculée en parallèle sur le pool fork/join commun
+	 */
+	public static double parallelSum(double[] values, Summation summation) {
+		return new ReductionTask(values, 0, values.length, false, summation).invoke();
+	}
+
+	/**
+	 * Somme des carrés calculée en parallèle sur le pool fork/join commun
+	 */
+	public static double parallelSumOfSquares(double[] values, Summation summation) {
+		return new ReductionTask(values, 0, values.length, true, summation).invoke();
+	}
+
+	private static double simpleSum(double[] values, int from, int to) {
+		double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		int i = from;
+		for (int end = to - 3; i < end; i += 4) {
+			s0 += values[i];
+			s1 += values[i + 1];
+			s2 += values[i + 2];
+			s3 += values[i + 3];
+		}
+		for (; i < to; i++) {
+			s0 += values[i];
+		}
+		return (s0 + s1) + (s2 + s3);
+	}
+
+	private static double simpleSumOfSquares(double[] values, int from, int to) {
+		double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		int i = from;
+		for (int end = to - 3; i < end; i += 4) {
+			double v0 = values[i], v1 = values[i + 1], v2 = values[i + 2], v3 = values[i + 3];
+			s0 += v0 * v0;
+			s1 += v1 * v1;
+			s2 += v2 * v2;
+			s3 += v3 * v3;
+		}
+		for (; i < to; i++) {
+			double v = values[i];
+			s0 += v * v;
+		}
+		return (s0 + s1) + (s2 + s3);
+	}
+
+	private static double compensatedSum(double[] values, int from, int to, boolean squares) {
+		double s0 = 0, s1 = 0, c0 = 0, c1 = 0;
+		int i = from;
+		for (int end = to - 1; i < end; i += 2) {
+			double v0 = values[i], v1 = values[i + 1];
+			double y0 = (squares ? v0 * v0 : v0) - c0;
+			double y1 = (squares ? v1 * v1 : v1) - c1;
+			double t0 = s0 + y0;
+			double t1 = s1 + y1;
+			c0 = (t0 - s0) - y0;
+			c1 = (t1 - s1) - y1;
+			s0 = t0;
+			s1 = t1;
+		}
+		if (i < to) {
+			double v = values[i];
+			double y = (squares ? v * v : v) - c0;
+			double t = s0 + y;
+			c0 = (t - s0) - y;
+			s0 = t;
+		}
+		return s0 + s1 - (c0 + c1);
+	}
+
+	/**
+	 * Buffer sans tableau sous-jacent (buffer direct ou vue) : lecture par index absolu
+	 */
+	private static double bufferSum(DoubleBuffer values, boolean squares, boolean compensated) {
+		double sum = 0, c = 0;
+		for (int i = values.position(), to = values.limit(); i < to; i++) {
+			double v = values.get(i);
+			double y = (squares ? v * v : v) - c;
+			double t = sum + y;
+			if (compensated) {
+				c = (t - sum) - y;
+			}
+			sum = t;
+		}
+		return sum;
+	}
+
+	private static final class ReductionTask extends RecursiveTask<Double> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final double[] values;
+		private final int from;
+		private final int to;
+		private final boolean squares;
+		private final Summation summation;
+
+		ReductionTask(double[] values, int from, int to, boolean squares, Summation summation) {
+			this.values = values;
+			this.from = from;
+			this.to = to;
+			this.squares = squares;
+			this.summation = summation;
+		}
+
+		@Override
+		protected Double compute() {
+			if (to - from <= PARALLEL_LEAF_SIZE) {
+				return squares ? sumOfSquares(values, from, to, summation) : sum(values, from, to, summation);
+			}
+			int middle = (from + to) >>> 1;
+			ReductionTask left = new ReductionTask(values, from, middle, squares, summation);
+			ReductionTask right = new ReductionTask(values, middle, to, squares, summation);
+			left.fork();
+			double rightSum = right.compute();
+			return left.join() + rightSum;
+		}
+	}
+
+	private static void checkRange(int length, int from, int to) {
+		if (from < 0 || to > length || from > to) {
+			throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", length: " + length);
+		}
+	}
+
+}
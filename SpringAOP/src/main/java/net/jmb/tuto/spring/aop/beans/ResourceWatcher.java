@@ -0,0 +1,59 @@
+package net.jmb.tuto.spring.aop.beans;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * Surveillance d'un fichier par <code>WatchService</code> : <code>onChange</code> est exécuté, dans un thread dédié,
+ * à chaque création ou modification du fichier
+ */
+class ResourceWatcher implements Closeable {
+
+	private final Path file;
+	private final Runnable onChange;
+	private final WatchService watchService;
+	private final Thread thread;
+
+	ResourceWatcher(Path file, Runnable onChange) throws IOException {
+		this.file = file;
+		this.onChange = onChange;
+		this.watchService = file.getFileSystem().newWatchService();
+		file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+		this.thread = new Thread(this::watch, "resource-watcher-" + file.getFileName());
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	private void watch() {
+		try {
+			while (true) {
+				WatchKey key = watchService.take();
+				boolean changed = false;
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (file.getFileName().equals(event.context())) {
+						changed = true;
+					}
+				}
+				key.reset();
+				if (changed) {
+					onChange.run();
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// Arrêt de la surveillance
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		watchService.close();
+		thread.interrupt();
+	}
+
+}
@@ -0,0 +1,139 @@
+package net.jmb.tuto.spring.aop.beans;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Regroupement des demandes concurrentes de somme des carrés.
+ * <p>
+ * Un thread dédié attend la première demande, puis accumule les suivantes pendant au plus <code>maxWait</code>
+ * et dans la limite de <code>maxBatchSize</code> demandes, puis calcule la somme de chaque demande du lot directement
+ * sur son tableau (sans recopie) : le gain vient du transfert et du réveil du thread, payés une fois par lot et non par demande.
+ * <p>
+ * Les <code>CompletableFuture</code> sont complétés par ce thread : les traitements enchaînés longs
+ * doivent utiliser les variantes <code>...Async</code>.
+ * <p>
+ * Le mode de sommation est lu une fois par lot, pour suivre les changements de configuration.
+ */
+public class SommeDesCarresBatcher implements AutoCloseable {
+
+	private static final long IDLE_POLL_MILLIS = 100;
+
+	private final int maxBatchSize;
+	private final long maxWaitNanos;
+	private final Supplier<Summation> summation;
+
+	private final BlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+	private final Thread dispatcher;
+	private volatile boolean running = true;
+
+	public SommeDesCarresBatcher(int maxBatchSize, long maxWait, TimeUnit unit, Supplier<Summation> summation) {
+		this.maxBatchSize = maxBatchSize;
+		this.maxWaitNanos = unit.toNanos(maxWait);
+		this.summation = summation;
+		this.dispatcher = new Thread(this::dispatch, "somme-des-carres-batcher");
+		this.dispatcher.setDaemon(true);
+		this.dispatcher.start();
+	}
+
+	/**
+	 * Somme des carrés calculée dans le prochain lot ; le tableau ne doit pas être modifié avant complétion
+	 */
+	public CompletableFuture<Double> submit(double[] nombres) {
+		CompletableFuture<Double> result = new CompletableFuture<>();
+		if (!running) {
+			result.completeExceptionally(new IllegalStateException("SommeDesCarresBatcher arrêté"));
+			return result;
+		}
+		Request request = new Request(nombres, result);
+		requests.add(request);
+		// Arrêt concurrent : la demande n'est peut-être plus attendue par le dispatcher
+		if (!running && requests.remove(request)) {
+			request.result.completeExceptionally(new IllegalStateException("SommeDesCarresBatcher arrêté"));
+		}
+		return result;
+	}
+
+	private void dispatch() {
+		List<Request> batch = new ArrayList<>(maxBatchSize);
+		while (running || !requests.isEmpty()) {
+			try {
+				Request first = requests.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				long deadline = System.nanoTime() + maxWaitNanos;
+				while (batch.size() < maxBatchSize) {
+					Request next = requests.poll();
+					if (next == null) {
+						long remaining = deadline - System.nanoTime();
+						if (remaining <= 0) {
+							break;
+						}
+						next = requests.poll(remaining, TimeUnit.NANOSECONDS);
+						if (next == null) {
+							break;
+						}
+					}
+					batch.add(next);
+				}
+			} catch (InterruptedException e) {
+				// Arrêt : traitement du lot en cours et des demandes restantes
+				running = false;
+			}
+			process(batch);
+			batch.clear();
+		}
+	}
+
+	private void process(List<Request> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		Summation current;
+		try {
+			current = summation.get();
+		} catch (RuntimeException e) {
+			batch.forEach(request -> request.result.completeExceptionally(e));
+			return;
+		}
+		for (Request request : batch) {
+			try {
+				request.result.complete(Reductions.sumOfSquares(request.nombres, current));
+			} catch (RuntimeException e) {
+				request.result.completeExceptionally(e);
+			}
+		}
+	}
+
+	/**
+	 * Arrêt après traitement des demandes déjà soumises ; celles que le dispatcher n'a pas traitées à temps sont en échec
+	 */
+	@Override
+	public void close() throws InterruptedException {
+		running = false;
+		dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+		IllegalStateException stopped = new IllegalStateException("SommeDesCarresBatcher arrêté");
+		for (Request request = requests.poll(); request != null; request = requests.poll()) {
+			request.result.completeExceptionally(stopped);
+		}
+	}
+
+	private static final class Request {
+
+		final double[] nombres;
+		final CompletableFuture<Double> result;
+
+		Request(double[] nombres, CompletableFuture<Double> result) {
+			this.nombres = nombres;
+			this.result = result;
+		}
+	}
+
+}
@@ -0,0 +1,18 @@
+package net.jmb.tuto.spring.aop.beans;
+
+/**
+ * Mode de sommation des réductions de <code>OperationsInterface</code>
+ */
+public enum Summation {
+
+	/**
+	 * Sommation directe sur 4 accumulateurs indépendants (la plus rapide)
+	 */
+	SIMPLE,
+
+	/**
+	 * Sommation compensée de Kahan : erreur d'arrondi indépendante du nombre d'éléments
+	 */
+	COMPENSATED
+
+}
@@ -0,0 +1,18 @@
+package net.jmb.tuto.spring.aop.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Méthode pure (résultat ne dépendant que des arguments, sans effet de bord, ou de l'état de la cible si elle est {@link Versioned})
+ * dont le résultat peut être mis en cache par <code>MemoizingInterceptor</code>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Memoizable {
+
+}
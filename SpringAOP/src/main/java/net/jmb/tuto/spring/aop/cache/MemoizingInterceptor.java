@@ -0,0 +1,206 @@
+package net.jmb.tuto.spring.aop.cache;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * <code>MethodInterceptor</code> mettant en cache le résultat des méthodes pures (voir {@link Memoizable})
+ * par (méthode, arguments), et version de la cible si elle est {@link Versioned} : un résultat n'est mis en cache
+ * que si la version n'a pas changé pendant l'appel, et les résultats d'une version antérieure ne sont plus servis.
+ * <p>
+ * Le cache est découpé en segments (choisis par le hash de la clé), chacun étant une <code>LinkedHashMap</code>
+ * synchronisée à éviction LRU : les threads ne se bloquent que s'ils accèdent au même segment.
+ * Les arguments tableaux (varargs) sont comparés par contenu, et copiés lorsqu'ils sont mis en cache
+ * pour qu'une modification ultérieure par l'appelant n'altère pas la clé.
+ * Les exceptions ne sont pas mises en cache.
+ */
+@ManagedResource(description = "Cache des méthodes @Memoizable")
+public class MemoizingInterceptor implements MethodInterceptor {
+
+	public static final int DEFAULT_MAX_SIZE = 4096;
+
+	private static final int SEGMENTS = 16;
+	private static final Object NULL_RESULT = new Object();
+
+	private final Map<CacheKey, Object>[] segments;
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
+
+	public MemoizingInterceptor() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * @param maxSize nombre maximal de résultats en cache, réparti entre les segments
+	 */
+	@SuppressWarnings("unchecked")
+	public MemoizingInterceptor(int maxSize) {
+		int segmentSize = Math.max(1, maxSize / SEGMENTS);
+		segments = new Map[SEGMENTS];
+		for (int i = 0; i < SEGMENTS; i++) {
+			segments[i] = new LinkedHashMap<CacheKey, Object>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<CacheKey, Object> eldest) {
+					if (size() > segmentSize) {
+						evictionCount.increment();
+						return true;
+					}
+					return false;
+				}
+			};
+		}
+	}
+
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		Object target = invocation.getThis();
+		long version = target instanceof Versioned ? ((Versioned) target).getVersion() : 0;
+		CacheKey key = new CacheKey(invocation.getMethod(), invocation.getArguments(), version);
+		Map<CacheKey, Object> segment = segments[key.hashCode & (SEGMENTS - 1)];
+		Object result;
+		synchronized (segment) {
+			result = segment.get(key);
+		}
+		if (result != null) {
+			hitCount.increment();
+			return result == NULL_RESULT ? null : result;
+		}
+		missCount.increment();
+		result = invocation.proceed();
+		if (target instanceof Versioned && ((Versioned) target).getVersion() != version) {
+			// Réglages modifiés pendant l'appel : résultat peut-être calculé avec la nouvelle version
+			return result;
+		}
+		CacheKey storedKey = key.copy();
+		synchronized (segment) {
+			segment.put(storedKey, result != null ? result : NULL_RESULT);
+		}
+		return result;
+	}
+
+	@ManagedAttribute(description = "Nombre d'appels servis par le cache")
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	@ManagedAttribute(description = "Nombre d'appels exécutés faute de résultat en cache")
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	@ManagedAttribute(description = "Nombre de résultats évincés (LRU)")
+	public long getEvictionCount() {
+		return evictionCount.sum();
+	}
+
+	@ManagedAttribute(description = "Proportion d'appels servis par le cache")
+	public double getHitRatio() {
+		long hits = getHitCount();
+		long total = hits + getMissCount();
+		return total > 0 ? (double) hits / total : 0;
+	}
+
+	@ManagedAttribute(description = "Nombre de résultats en cache")
+	public int getSize() {
+		int size = 0;
+		for (Map<CacheKey, Object> segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	@ManagedOperation(description = "Vidage du cache et remise à zéro des statistiques")
+	public void clear() {
+		for (Map<CacheKey, Object> segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+		hitCount.reset();
+		missCount.reset();
+		evictionCount.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "MemoizingInterceptor [size=" + getSize() + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+				+ ", evictions=" + getEvictionCount() + "]";
+	}
+
+	static final class CacheKey {
+
+		private final Method method;
+		private final Object[] args;
+		private final long version;
+		private final int hashCode;
+
+		CacheKey(Method method, Object[] args, long version) {
+			this.method = method;
+			this.args = args;
+			this.version = version;
+			int hash = 31 * (31 * method.hashCode() + Long.hashCode(version)) + Arrays.deepHashCode(args);
+			this.hashCode = hash ^ (hash >>> 16);
+		}
+
+		/**
+		 * Copie stockée dans le cache : tableaux d'arguments copiés en profondeur
+		 */
+		CacheKey copy() {
+			return new CacheKey(method, (Object[]) deepCopy(args), version);
+		}
+
+		private static Object deepCopy(Object value) {
+			if (value instanceof Object[]) {
+				Object[] copy = ((Object[]) value).clone();
+				for (int i = 0; i < copy.length; i++) {
+					if (copy[i] != null && copy[i].getClass().isArray()) {
+						copy[i] = deepCopy(copy[i]);
+					}
+				}
+				return copy;
+			}
+			if (value != null && value.getClass().isArray()) {
+				// Tableau de primitifs
+				int length = Array.getLength(value);
+				Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+				System.arraycopy(value, 0, copy, 0, length);
+				return copy;
+			}
+			return value;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey otherKey = (CacheKey) other;
+			return hashCode == otherKey.hashCode && version == otherKey.version && method.equals(otherKey.method)
+					&& Arrays.deepEquals(args, otherKey.args);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+}
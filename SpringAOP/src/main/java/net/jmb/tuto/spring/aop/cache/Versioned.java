@@ -0,0 +1,14 @@
+package net.jmb.tuto.spring.aop.cache;
+
+/**
+ * Cible dont les méthodes {@link Memoizable} dépendent aussi d'un état modifiable (ex: configuration) :
+ * <code>MemoizingInterceptor</code> inclut sa version dans la clé de cache
+ */
+public interface Versioned {
+
+	/**
+	 * Version de l'état, changée à chaque modification
+	 */
+	long getVersion();
+
+}
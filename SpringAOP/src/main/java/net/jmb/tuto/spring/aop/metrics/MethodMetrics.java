@@ -0,0 +1,105 @@
+package net.jmb.tuto.spring.aop.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Compteurs d'une méthode : appels, erreurs, durée totale et maximale, histogramme des durées.
+ * <p>
+ * L'enregistrement est réparti sur plusieurs "shards" (<code>AtomicLongArray</code>) choisis selon l'id du thread :
+ * sans verrou, et sans contention tant que les threads ne partagent pas un même shard.
+ * <p>
+ * L'histogramme est logarithmique à la manière d'HdrHistogram : 8 sous-intervalles par puissance de 2
+ * (précision relative de 12,5 %), de la nanoseconde à la durée maximale d'un <code>long</code>.
+ */
+final class MethodMetrics {
+
+	static final int SUB_BUCKET_BITS = 3;
+	static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+	private static final int COUNT = 0;
+	private static final int ERRORS = 1;
+	private static final int TOTAL_NANOS = 2;
+	private static final int MAX_NANOS = 3;
+	private static final int HEADER = 4;
+
+	private static final int SHARDS = shardCount();
+
+	private final String name;
+	private final AtomicLongArray[] shards = new AtomicLongArray[SHARDS];
+
+	MethodMetrics(String name) {
+		this.name = name;
+		for (int i = 0; i < SHARDS; i++) {
+			shards[i] = new AtomicLongArray(HEADER + BUCKETS);
+		}
+	}
+
+	void record(long nanos, boolean error) {
+		AtomicLongArray shard = shards[(int) Thread.currentThread().getId() & (SHARDS - 1)];
+		shard.incrementAndGet(COUNT);
+		if (error) {
+			shard.incrementAndGet(ERRORS);
+		}
+		shard.addAndGet(TOTAL_NANOS, nanos);
+		long max = shard.get(MAX_NANOS);
+		while (nanos > max && !shard.compareAndSet(MAX_NANOS, max, nanos)) {
+			max = shard.get(MAX_NANOS);
+		}
+		shard.incrementAndGet(HEADER + bucketIndex(nanos));
+	}
+
+	MethodMetricsSnapshot snapshot() {
+		long count = 0, errors = 0, totalNanos = 0, maxNanos = 0;
+		long[] buckets = new long[BUCKETS];
+		for (AtomicLongArray shard : shards) {
+			count += shard.get(COUNT);
+			errors += shard.get(ERRORS);
+			totalNanos += shard.get(TOTAL_NANOS);
+			maxNanos = Math.max(maxNanos, shard.get(MAX_NANOS));
+			for (int i = 0; i < BUCKETS; i++) {
+				buckets[i] += shard.get(HEADER + i);
+			}
+		}
+		return new MethodMetricsSnapshot(name, count, errors, totalNanos, maxNanos, buckets);
+	}
+
+	void reset() {
+		for (AtomicLongArray shard : shards) {
+			for (int i = 0; i < shard.length(); i++) {
+				shard.set(i, 0);
+			}
+		}
+	}
+
+	/**
+	 * Index de l'intervalle : valeur exacte en dessous de <code>SUB_BUCKETS</code>,
+	 * puis puissance de 2 et 3 bits de poids fort suivants
+	 */
+	static int bucketIndex(long nanos) {
+		if (nanos < SUB_BUCKETS) {
+			return nanos < 0 ? 0 : (int) nanos;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * Plus grande valeur de l'intervalle d'index donné
+	 */
+	static long bucketUpperBound(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int shift = index / SUB_BUCKETS - 1;
+		long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+		return lowerBound + (1L << shift) - 1;
+	}
+
+	private static int shardCount() {
+		int shards = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+		return Math.min(shards, 64);
+	}
+
+}
@@ -0,0 +1,80 @@
+package net.jmb.tuto.spring.aop.metrics;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * <code>MethodInterceptor</code> mesurant, par méthode interceptée, le nombre d'appels, d'erreurs et l'histogramme des durées.
+ * <p>
+ * Les mesures sont consultables par {@link #snapshot()} ou en JMX (attribut <code>Summary</code>)
+ * lorsque l'export des MBeans est activé (<code>@EnableMBeanExport</code>).
+ */
+@ManagedResource(description = "Mesures des méthodes interceptées")
+public class MethodMetricsInterceptor implements MethodInterceptor {
+
+	private final ConcurrentMap<Method, MethodMetrics> metrics = new ConcurrentHashMap<>();
+
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		MethodMetrics methodMetrics = metrics.get(invocation.getMethod());
+		if (methodMetrics == null) {
+			methodMetrics = metrics.computeIfAbsent(invocation.getMethod(), method -> new MethodMetrics(methodName(method)));
+		}
+		long start = System.nanoTime();
+		boolean error = true;
+		try {
+			Object rval = invocation.proceed();
+			error = false;
+			return rval;
+		} finally {
+			methodMetrics.record(System.nanoTime() - start, error);
+		}
+	}
+
+	/**
+	 * Mesures de chaque méthode, triées par nom (ex: "OperationsInterface.carre(Double)")
+	 */
+	public Map<String, MethodMetricsSnapshot> snapshot() {
+		Map<String, MethodMetricsSnapshot> snapshots = new TreeMap<>();
+		metrics.values().forEach(methodMetrics -> {
+			MethodMetricsSnapshot snapshot = methodMetrics.snapshot();
+			snapshots.put(snapshot.getMethod(), snapshot);
+		});
+		return snapshots;
+	}
+
+	public MethodMetricsSnapshot snapshot(Method method) {
+		MethodMetrics methodMetrics = metrics.get(method);
+		return methodMetrics != null ? methodMetrics.snapshot() : null;
+	}
+
+	@ManagedAttribute(description = "Mesures par méthode : appels, erreurs, durées moyenne, médiane, p99 et maximale")
+	public String[] getSummary() {
+		return snapshot().values().stream().map(MethodMetricsSnapshot::toString).toArray(String[]::new);
+	}
+
+	@ManagedOperation(description = "Remise à zéro des mesures")
+	public void reset() {
+		metrics.values().forEach(MethodMetrics::reset);
+	}
+
+	static String methodName(Method method) {
+		StringBuilder name = new StringBuilder(method.getDeclaringClass().getSimpleName())
+				.append('.').append(method.getName()).append('(');
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		for (int i = 0; i < parameterTypes.length; i++) {
+			name.append(i > 0 ? ", " : "").append(parameterTypes[i].getSimpleName());
+		}
+		return name.append(')').toString();
+	}
+
+}
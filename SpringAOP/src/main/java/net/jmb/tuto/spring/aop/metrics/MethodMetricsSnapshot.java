@@ -0,0 +1,80 @@
+package net.jmb.tuto.spring.aop.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Etat figé des compteurs d'une méthode, à un instant donné
+ */
+public final class MethodMetricsSnapshot {
+
+	private final String method;
+	private final long count;
+	private final long errorCount;
+	private final long totalNanos;
+	private final long maxNanos;
+	private final long[] buckets;
+
+	MethodMetricsSnapshot(String method, long count, long errorCount, long totalNanos, long maxNanos, long[] buckets) {
+		this.method = method;
+		this.count = count;
+		this.errorCount = errorCount;
+		this.totalNanos = totalNanos;
+		this.maxNanos = maxNanos;
+		this.buckets = buckets;
+	}
+
+	public String getMethod() {
+		return method;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getErrorCount() {
+		return errorCount;
+	}
+
+	public long getTotalNanos() {
+		return totalNanos;
+	}
+
+	public long getMaxNanos() {
+		return maxNanos;
+	}
+
+	public long getMeanNanos() {
+		return count > 0 ? totalNanos / count : 0;
+	}
+
+	/**
+	 * Durée en dessous de laquelle se situent <code>percentile</code> % des appels (borne haute de l'intervalle,
+	 * limitée à la durée maximale observée)
+	 */
+	public long getPercentileNanos(double percentile) {
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+		long cumulated = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			cumulated += buckets[i];
+			if (cumulated >= rank) {
+				return Math.min(MethodMetrics.bucketUpperBound(i), maxNanos);
+			}
+		}
+		return maxNanos;
+	}
+
+	@Override
+	public String toString() {
+		return method + " [count=" + count + ", errors=" + errorCount
+				+ ", mean=" + micros(getMeanNanos()) + ", p50=" + micros(getPercentileNanos(50))
+				+ ", p99=" + micros(getPercentileNanos(99)) + ", max=" + micros(maxNanos) + "]";
+	}
+
+	private static String micros(long nanos) {
+		return String.format("%.3fus", nanos / (double) TimeUnit.MICROSECONDS.toNanos(1));
+	}
+
+}
@@ -0,0 +1,134 @@
+package net.jmb.tuto.spring.aop.pointcut;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+
+/**
+ * Cache partagé des résultats de correspondance dynamique (<code>MethodMatcher.matches(method, targetClass, args)</code>)
+ * des pointcuts AspectJ.
+ * <p>
+ * Le test dynamique d'un pointcut tel que <code>args(Double, ..)</code> n'est qu'un <code>instanceof</code> sur les arguments.
+ * Lorsque tous les paramètres de la méthode sont de types finaux (primitifs, <code>Double</code>, <code>String</code>,
+ * tableaux de types finaux...), un argument non <code>null</code> est toujours exactement du type déclaré :
+ * le résultat ne dépend alors que de la méthode, de la classe cible et des arguments <code>null</code>,
+ * et peut être mis en cache par (pointcut, méthode, classe cible, masque des arguments <code>null</code>).
+ * <p>
+ * Un pointcut n'est éligible que s'il ne teste pas l'objet courant ou la cible (<code>this</code>, <code>target</code>,
+ * <code>@...</code>), dont le résultat dépend de l'instance, et que le greffon associé n'attend aucun paramètre lié
+ * (voir <code>DynamicMatchCachingPostProcessor</code>).
+ */
+public class DynamicMatchCache {
+
+	private static final Pattern INSTANCE_DEPENDENT_DESIGNATOR = Pattern.compile("(?<![\\w.$])(this|target|@\\w+)\\s*\\(");
+	private static final int MAX_CACHED_ARGS = 64;
+
+	private final ConcurrentMap<MatchKey, Boolean> matches = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Method, Boolean> cacheableMethods = new ConcurrentHashMap<>();
+
+	/**
+	 * Le pointcut peut-il être mis en cache (expression sans test dépendant de l'instance) ?
+	 */
+	public static boolean isCacheable(AspectJExpressionPointcut pointcut) {
+		String expression = pointcut.getExpression();
+		return expression != null && !INSTANCE_DEPENDENT_DESIGNATOR.matcher(expression).find();
+	}
+
+	/**
+	 * Résultat de <code>methodMatcher.matches(method, targetClass, args)</code>, calculé une seule fois
+	 * par combinaison d'arguments <code>null</code> lorsque les types des paramètres de la méthode le permettent
+	 */
+	public boolean matches(MethodMatcher methodMatcher, Method method, Class<?> targetClass, Object[] args) {
+		if (args.length > MAX_CACHED_ARGS || !isCacheable(method)) {
+			return methodMatcher.matches(method, targetClass, args);
+		}
+		long nullMask = 0;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i] == null) {
+				nullMask |= 1L << i;
+			}
+		}
+		MatchKey key = new MatchKey(methodMatcher, method, targetClass, nullMask);
+		Boolean match = matches.get(key);
+		if (match == null) {
+			match = methodMatcher.matches(method, targetClass, args);
+			matches.put(key, match);
+		}
+		return match;
+	}
+
+	public int size() {
+		return matches.size();
+	}
+
+	public void clear() {
+		matches.clear();
+	}
+
+	private boolean isCacheable(Method method) {
+		Boolean cacheable = cacheableMethods.get(method);
+		if (cacheable == null) {
+			cacheable = true;
+			for (Class<?> parameterType : method.getParameterTypes()) {
+				if (!isExactType(parameterType)) {
+					cacheable = false;
+					break;
+				}
+			}
+			cacheableMethods.put(method, cacheable);
+		}
+		return cacheable;
+	}
+
+	/**
+	 * Un argument non null d'un paramètre de ce type est-il toujours exactement de ce type ?
+	 */
+	private static boolean isExactType(Class<?> type) {
+		while (type.isArray()) {
+			type = type.getComponentType();
+		}
+		return type.isPrimitive() || Modifier.isFinal(type.getModifiers());
+	}
+
+	private static final class MatchKey {
+
+		private final MethodMatcher methodMatcher;
+		private final Method method;
+		private final Class<?> targetClass;
+		private final long nullMask;
+		private final int hashCode;
+
+		MatchKey(MethodMatcher methodMatcher, Method method, Class<?> targetClass, long nullMask) {
+			this.methodMatcher = methodMatcher;
+			this.method = method;
+			this.targetClass = targetClass;
+			this.nullMask = nullMask;
+			this.hashCode = ((System.identityHashCode(methodMatcher) * 31 + method.hashCode()) * 31
+					+ (targetClass != null ? targetClass.hashCode() : 0)) * 31 + Long.hashCode(nullMask);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof MatchKey)) {
+				return false;
+			}
+			MatchKey otherKey = (MatchKey) other;
+			return methodMatcher == otherKey.methodMatcher && method.equals(otherKey.method)
+					&& targetClass == otherKey.targetClass && nullMask == otherKey.nullMask;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+}
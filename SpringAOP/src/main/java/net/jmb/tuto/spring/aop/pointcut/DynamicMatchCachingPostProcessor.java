@@ -0,0 +1,81 @@
+package net.jmb.tuto.spring.aop.pointcut;
+
+import org.aopalliance.aop.Advice;
+import org.aspectj.lang.JoinPoint;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.aspectj.AbstractAspectJAdvice;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.aspectj.InstantiationModelAwarePointcutAdvisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * <code>BeanPostProcessor</code> remplaçant, dans les proxys créés par l'auto-proxy, les advisors AspectJ dynamiques
+ * éligibles (voir {@link DynamicMatchCache#isCacheable}) par des advisors dont la correspondance à l'exécution est mise en cache.
+ * <p>
+ * Doit s'exécuter après le créateur d'auto-proxy (enregistré par <code>@EnableAspectJAutoProxy</code> en priorité maximale) :
+ * ne pas le déclarer <code>Ordered</code>.
+ */
+public class DynamicMatchCachingPostProcessor implements BeanPostProcessor {
+
+	private final DynamicMatchCache matchCache;
+
+	public DynamicMatchCachingPostProcessor() {
+		this(new DynamicMatchCache());
+	}
+
+	public DynamicMatchCachingPostProcessor(DynamicMatchCache matchCache) {
+		this.matchCache = matchCache;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+			Advised advised = (Advised) bean;
+			for (Advisor advisor : advised.getAdvisors()) {
+				if (isCacheable(advisor)) {
+					AspectJExpressionPointcut pointcut = (AspectJExpressionPointcut) ((PointcutAdvisor) advisor).getPointcut();
+					DefaultPointcutAdvisor cachingAdvisor = new DefaultPointcutAdvisor(
+							new MatchCachingPointcut(pointcut, matchCache), advisor.getAdvice());
+					advised.replaceAdvisor(advisor, cachingAdvisor);
+				}
+			}
+		}
+		return bean;
+	}
+
+	public DynamicMatchCache getMatchCache() {
+		return matchCache;
+	}
+
+	private static boolean isCacheable(Advisor advisor) {
+		if (!(advisor instanceof PointcutAdvisor)
+				|| advisor instanceof InstantiationModelAwarePointcutAdvisor && ((InstantiationModelAwarePointcutAdvisor) advisor).isLazy()) {
+			return false;
+		}
+		Object pointcut = ((PointcutAdvisor) advisor).getPointcut();
+		return pointcut instanceof AspectJExpressionPointcut
+				&& ((AspectJExpressionPointcut) pointcut).getMethodMatcher().isRuntime()
+				&& DynamicMatchCache.isCacheable((AspectJExpressionPointcut) pointcut)
+				&& hasNoBoundParameters(advisor.getAdvice());
+	}
+
+	/**
+	 * Le greffon n'attend-il que des paramètres <code>JoinPoint</code> ? Un paramètre lié par le pointcut
+	 * (ex: <code>args(nombre)</code>) est renseigné lors de la correspondance dynamique, qui ne doit alors pas être évitée.
+	 */
+	private static boolean hasNoBoundParameters(Advice advice) {
+		if (!(advice instanceof AbstractAspectJAdvice)) {
+			return false;
+		}
+		for (Class<?> parameterType : ((AbstractAspectJAdvice) advice).getAspectJAdviceMethod().getParameterTypes()) {
+			if (!JoinPoint.class.isAssignableFrom(parameterType) && parameterType != JoinPoint.StaticPart.class) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,54 @@
+package net.jmb.tuto.spring.aop.pointcut;
+
+import java.lang.reflect.Method;
+
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.Pointcut;
+
+/**
+ * Pointcut délégant à un pointcut dynamique, dont la correspondance à l'exécution passe par un <code>DynamicMatchCache</code>
+ */
+public class MatchCachingPointcut implements Pointcut, MethodMatcher {
+
+	private final Pointcut pointcut;
+	private final MethodMatcher methodMatcher;
+	private final DynamicMatchCache matchCache;
+
+	public MatchCachingPointcut(Pointcut pointcut, DynamicMatchCache matchCache) {
+		this.pointcut = pointcut;
+		this.methodMatcher = pointcut.getMethodMatcher();
+		this.matchCache = matchCache;
+	}
+
+	@Override
+	public ClassFilter getClassFilter() {
+		return pointcut.getClassFilter();
+	}
+
+	@Override
+	public MethodMatcher getMethodMatcher() {
+		return this;
+	}
+
+	@Override
+	public boolean matches(Method method, Class<?> targetClass) {
+		return methodMatcher.matches(method, targetClass);
+	}
+
+	@Override
+	public boolean isRuntime() {
+		return methodMatcher.isRuntime();
+	}
+
+	@Override
+	public boolean matches(Method method, Class<?> targetClass, Object... args) {
+		return matchCache.matches(methodMatcher, method, targetClass, args);
+	}
+
+	@Override
+	public String toString() {
+		return "MatchCachingPointcut: " + pointcut;
+	}
+
+}
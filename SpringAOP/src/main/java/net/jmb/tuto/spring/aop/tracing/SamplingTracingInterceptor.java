@@ -0,0 +1,134 @@
+package net.jmb.tuto.spring.aop.tracing;
+
+import java.lang.reflect.Array;
+import java.nio.Buffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * <code>MethodInterceptor</code> traçant un échantillon des invocations :
+ * <ul>
+ * <li>1 invocation sur <code>samplingRate</code> en moyenne (tirage aléatoire par thread, sans état partagé)
+ * <li>dans la limite de <code>maxTracesPerSecond</code> traces par seconde (0 : sans limite)
+ * </ul>
+ * Méthode, horodatage, durée et taille des arguments sont enregistrés dans un buffer circulaire pré-alloué,
+ * consultable par {@link #getTraces()} ou en JMX (<code>dump</code>). Les invocations non retenues ne coûtent qu'un tirage.
+ */
+@ManagedResource(description = "Traces échantillonnées des méthodes interceptées")
+public class SamplingTracingInterceptor implements MethodInterceptor {
+
+	/**
+	 * Profil Spring activant le traçage dans les applications de démo (<code>-Dspring.profiles.active=tracing</code>)
+	 */
+	public static final String PROFILE = "tracing";
+
+	private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private final TraceBuffer buffer;
+	private final int samplingRate;
+	private final int maxTracesPerSecond;
+
+	private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+	private final AtomicInteger windowCount = new AtomicInteger();
+
+	/**
+	 * @param capacity nombre de traces conservées (arrondi à la puissance de 2 supérieure)
+	 * @param samplingRate une invocation tracée sur <code>samplingRate</code> (1 : toutes)
+	 * @param maxTracesPerSecond nombre maximal de traces par seconde, 0 pour ne pas limiter
+	 */
+	public SamplingTracingInterceptor(int capacity, int samplingRate, int maxTracesPerSecond) {
+		this.buffer = new TraceBuffer(capacity);
+		this.samplingRate = Math.max(1, samplingRate);
+		this.maxTracesPerSecond = maxTracesPerSecond;
+	}
+
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		if (!isSampled()) {
+			return invocation.proceed();
+		}
+		long timestamp = System.currentTimeMillis();
+		long start = System.nanoTime();
+		boolean error = true;
+		try {
+			Object rval = invocation.proceed();
+			error = false;
+			return rval;
+		} finally {
+			buffer.record(invocation.getMethod(), timestamp, System.nanoTime() - start,
+					argumentSize(invocation.getArguments()), error);
+		}
+	}
+
+	private boolean isSampled() {
+		if (samplingRate > 1 && ThreadLocalRandom.current().nextInt(samplingRate) != 0) {
+			return false;
+		}
+		if (maxTracesPerSecond <= 0) {
+			return true;
+		}
+		long now = System.nanoTime();
+		long start = windowStart.get();
+		if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+			windowCount.set(0);
+		}
+		return windowCount.incrementAndGet() <= maxTracesPerSecond;
+	}
+
+	/**
+	 * Traces conservées, de la plus ancienne à la plus récente
+	 */
+	public List<TraceRecord> getTraces() {
+		return buffer.snapshot();
+	}
+
+	@ManagedAttribute(description = "Nombre total de traces enregistrées")
+	public long getRecordedCount() {
+		return buffer.recordedCount();
+	}
+
+	@ManagedAttribute(description = "Nombre de traces abandonnées, leur case étant réécrite au même moment")
+	public long getDroppedCount() {
+		return buffer.droppedCount();
+	}
+
+	@ManagedOperation(description = "Traces conservées, de la plus ancienne à la plus récente")
+	public String[] dump() {
+		return getTraces().stream().map(TraceRecord::toString).toArray(String[]::new);
+	}
+
+	@ManagedOperation(description = "Effacement des traces conservées")
+	public void clear() {
+		buffer.clear();
+	}
+
+	static int argumentSize(Object[] args) {
+		int size = 0;
+		for (Object arg : args) {
+			if (arg == null) {
+				continue;
+			}
+			if (arg.getClass().isArray()) {
+				size += Array.getLength(arg);
+			} else if (arg instanceof Buffer) {
+				size += ((Buffer) arg).remaining();
+			} else if (arg instanceof Collection) {
+				size += ((Collection<?>) arg).size();
+			} else {
+				size++;
+			}
+		}
+		return size;
+	}
+
+}
@@ -0,0 +1,113 @@
+package net.jmb.tuto.spring.aop.tracing;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffer circulaire de traces, alloué une fois pour toutes : chaque champ d'une trace est une case
+ * de tableau atomique, aucune allocation n'a lieu à l'enregistrement.
+ * <p>
+ * Chaque case porte le numéro de la trace qu'elle contient. Un écrivain réserve la case par compareAndSet
+ * (numéro plus ancien ou case vide vers "en cours d'écriture") avant d'en écrire les champs : deux écrivains
+ * qui se rattrapent sur la même case (tour complet du buffer pendant une écriture) ne mélangent jamais leurs champs,
+ * le second abandonne sa trace (comptée dans {@link #droppedCount()}). La lecture vérifie le numéro
+ * avant et après la copie des champs et ignore une case en cours de réécriture.
+ */
+class TraceBuffer {
+
+	private static final long EMPTY = -1;
+	private static final long WRITING = -2;
+
+	private final int mask;
+	private final AtomicLong next = new AtomicLong();
+	private final LongAdder dropped = new LongAdder();
+	private final AtomicLongArray sequences;
+	private final AtomicReferenceArray<Method> methods;
+	private final AtomicLongArray timestamps;
+	private final AtomicLongArray durations;
+	private final AtomicLongArray details;
+
+	TraceBuffer(int capacity) {
+		int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+		this.mask = size - 1;
+		this.sequences = new AtomicLongArray(size);
+		this.methods = new AtomicReferenceArray<>(size);
+		this.timestamps = new AtomicLongArray(size);
+		this.durations = new AtomicLongArray(size);
+		this.details = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			sequences.set(i, EMPTY);
+		}
+	}
+
+	int capacity() {
+		return mask + 1;
+	}
+
+	long recordedCount() {
+		return next.get();
+	}
+
+	/**
+	 * Traces abandonnées faute d'avoir pu réserver leur case (réécrite par un autre écrivain au même moment)
+	 */
+	long droppedCount() {
+		return dropped.sum();
+	}
+
+	void record(Method method, long timestampMillis, long durationNanos, int argumentSize, boolean error) {
+		long sequence = next.getAndIncrement();
+		int index = (int) sequence & mask;
+		long current = sequences.get(index);
+		if (current == WRITING || current > sequence || !sequences.compareAndSet(index, current, WRITING)) {
+			dropped.increment();
+			return;
+		}
+		methods.set(index, method);
+		timestamps.set(index, timestampMillis);
+		durations.set(index, durationNanos);
+		details.set(index, (long) argumentSize << 1 | (error ? 1 : 0));
+		sequences.set(index, sequence);
+	}
+
+	/**
+	 * Traces présentes dans le buffer, de la plus ancienne à la plus récente
+	 */
+	List<TraceRecord> snapshot() {
+		long last = next.get();
+		long first = Math.max(0, last - capacity());
+		List<TraceRecord> records = new ArrayList<>((int) (last - first));
+		for (long sequence = first; sequence < last; sequence++) {
+			int index = (int) sequence & mask;
+			if (sequences.get(index) != sequence) {
+				continue;
+			}
+			Method method = methods.get(index);
+			long timestamp = timestamps.get(index);
+			long duration = durations.get(index);
+			long detail = details.get(index);
+			if (sequences.get(index) == sequence) {
+				records.add(new TraceRecord(sequence, method, timestamp, duration, (int) (detail >>> 1), (detail & 1) != 0));
+			}
+		}
+		return records;
+	}
+
+	/**
+	 * Vide les cases qui ne sont pas en cours d'écriture
+	 */
+	void clear() {
+		for (int i = 0; i < capacity(); i++) {
+			long current = sequences.get(i);
+			if (current != WRITING) {
+				sequences.compareAndSet(i, current, EMPTY);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,64 @@
+package net.jmb.tuto.spring.aop.tracing;
+
+import java.lang.reflect.Method;
+import java.time.Instant;
+
+/**
+ * Trace d'une invocation échantillonnée
+ */
+public final class TraceRecord {
+
+	private final long sequence;
+	private final Method method;
+	private final long timestampMillis;
+	private final long durationNanos;
+	private final int argumentSize;
+	private final boolean error;
+
+	TraceRecord(long sequence, Method method, long timestampMillis, long durationNanos, int argumentSize, boolean error) {
+		this.sequence = sequence;
+		this.method = method;
+		this.timestampMillis = timestampMillis;
+		this.durationNanos = durationNanos;
+		this.argumentSize = argumentSize;
+		this.error = error;
+	}
+
+	/**
+	 * Rang de la trace parmi toutes les traces enregistrées
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	public Method getMethod() {
+		return method;
+	}
+
+	public long getTimestampMillis() {
+		return timestampMillis;
+	}
+
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	/**
+	 * Taille des arguments : nombre d'éléments des tableaux, buffers et collections, 1 pour les autres valeurs
+	 */
+	public int getArgumentSize() {
+		return argumentSize;
+	}
+
+	public boolean isError() {
+		return error;
+	}
+
+	@Override
+	public String toString() {
+		return "#" + sequence + " " + Instant.ofEpochMilli(timestampMillis) + " "
+				+ method.getDeclaringClass().getSimpleName() + "." + method.getName()
+				+ " [argumentSize=" + argumentSize + ", duration=" + durationNanos + "ns" + (error ? ", error" : "") + "]";
+	}
+
+}
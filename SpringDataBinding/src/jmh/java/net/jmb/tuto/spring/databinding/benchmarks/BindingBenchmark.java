@@ -0,0 +1,66 @@
+package net.jmb.tuto.spring.databinding.benchmarks;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import net.jmb.tuto.spring.databinding.DataBinderValidationApp;
+import net.jmb.tuto.spring.databinding.beans.Person;
+import net.jmb.tuto.spring.databinding.services.PersonService;
+
+/**
+ * Binding de propriétés en objets <code>Person</code> : <code>DataBinder</code> par enregistrement
+ * (<code>getBeanFromProperties</code>) et binding en masse par plans pré-compilés (<code>getPersonsFromProperties</code>)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BindingBenchmark {
+
+	AnnotationConfigApplicationContext context;
+	PersonService personService;
+	Map<String, Object>[] rows;
+
+	@Setup
+	public void setUp() {
+		context = new AnnotationConfigApplicationContext(DataBinderValidationApp.class);
+		personService = context.getBean(PersonService.class);
+		rows = Datasets.personProperties(1024, new Random(42));
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public void dataBinderPerRecord(Blackhole blackhole) {
+		for (Map<String, Object> row : rows) {
+			blackhole.consume(personService.getBeanFromProperties(row, Person.class));
+		}
+	}
+
+	@Benchmark
+	public void bulkBindPlans(Blackhole blackhole) {
+		personService.getPersonsFromProperties(Arrays.stream(rows)).forEach(blackhole::consume);
+	}
+
+}
@@ -0,0 +1,133 @@
+package net.jmb.tuto.spring.databinding.benchmarks;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import net.jmb.tuto.spring.databinding.beans.Adress;
+import net.jmb.tuto.spring.databinding.beans.Person;
+
+/**
+ * Jeux de données des benchmarks : mélange reproductible de valeurs valides et invalides
+ */
+final class Datasets {
+
+	private static final String[] NAMES = { "Thomas", "Arthur", "Léa", "Mathieu", "X", "" };
+	private static final String[] CITIES = { "Marseille", "Lyon", "Paris", "Nantes" };
+
+	private Datasets() {
+	}
+
+	/**
+	 * N° Insee avec clé : 3/4 valides, 1/4 invalides (clé erronée, mois hors limites, caractère non numérique)
+	 */
+	static String[] inseeNumbers(int count, Random random) {
+		String[] values = new String[count];
+		for (int i = 0; i < count; i++) {
+			long nir = (1 + random.nextInt(2)) * 1_000_000_000_000L
+					+ random.nextInt(100) * 10_000_000_000L
+					+ (1 + random.nextInt(12)) * 100_000_000L
+					+ (1 + random.nextInt(95)) * 1_000_000L
+					+ random.nextInt(1_000_000);
+			long key = 97 - nir % 97;
+			String value = nir + (key < 10 ? "0" : "") + key;
+			switch (i % 8) {
+			case 1:
+				value = nir + "00";
+				break;
+			case 3:
+				value = value.substring(0, 3) + "13" + value.substring(5);
+				break;
+			case 5:
+				value = value.substring(0, 10) + "A" + value.substring(11);
+				break;
+			default:
+				break;
+			}
+			values[i] = value;
+		}
+		return values;
+	}
+
+	/**
+	 * Dates dans les 4 formats de <code>DataBinderValidationApp</code>, dont 1/8 invalides
+	 */
+	static String[] dates(int count, Random random) {
+		String[] values = new String[count];
+		for (int i = 0; i < count; i++) {
+			int year = 1930 + random.nextInt(90);
+			String month = twoDigits(1 + random.nextInt(12));
+			String day = twoDigits(1 + random.nextInt(28));
+			switch (i % 8) {
+			case 0:
+			case 1:
+				values[i] = day + "/" + month + "/" + year;
+				break;
+			case 2:
+			case 3:
+				values[i] = year + "-" + month + "-" + day;
+				break;
+			case 4:
+			case 5:
+				values[i] = day + "-" + month + "-" + year;
+				break;
+			case 6:
+				values[i] = year + month + day;
+				break;
+			default:
+				values[i] = day + "." + month + "." + year;
+				break;
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Propriétés de personnes telles que lues d'un fichier d'import (valeurs String, chemins imbriqués)
+	 */
+	static Map<String, Object>[] personProperties(int count, Random random) {
+		String[] dates = dates(count, random);
+		@SuppressWarnings("unchecked")
+		Map<String, Object>[] rows = new Map[count];
+		for (int i = 0; i < count; i++) {
+			Map<String, Object> row = new HashMap<>();
+			row.put("name", NAMES[random.nextInt(NAMES.length)]);
+			row.put("age", String.valueOf(random.nextInt(120) - 5));
+			row.put("birthDate", dates[i]);
+			row.put("adress.street", "traverse Régny");
+			row.put("adress.number", String.valueOf(1 + random.nextInt(200)));
+			row.put("adress.city", CITIES[random.nextInt(CITIES.length)]);
+			row.put("adress.postalCode", i % 5 == 0 ? "1300B" : "130" + twoDigits(random.nextInt(17)));
+			rows[i] = row;
+		}
+		return rows;
+	}
+
+	/**
+	 * Personnes complètes, dont environ la moitié présente au moins une erreur
+	 */
+	static Person[] persons(int count, Random random) {
+		String[] insee = inseeNumbers(count, random);
+		Person[] persons = new Person[count];
+		for (int i = 0; i < count; i++) {
+			Adress adress = new Adress()
+					.setStreet(i % 7 == 0 ? " " : "traverse Régny")
+					.setNumber(String.valueOf(1 + random.nextInt(200)))
+					.setCity(CITIES[random.nextInt(CITIES.length)])
+					.setPostalCode(i % 5 == 0 ? "1300B" : "130" + twoDigits(random.nextInt(17)));
+			persons[i] = new Person()
+					.setName(NAMES[random.nextInt(NAMES.length)])
+					.setAge(random.nextInt(120) - 5)
+					.setBirthDate(new Date(-1_000_000_000_000L + random.nextInt(1_000_000_000) * 1_500L))
+					.setInsee(insee[i])
+					.setAdress(i % 11 == 0 ? null : adress);
+		}
+		return persons;
+	}
+
+	private static String twoDigits(int value) {
+		return value < 10 ? "0" + value : String.valueOf(value);
+	}
+
+}
@@ -0,0 +1,90 @@
+package net.jmb.tuto.spring.databinding.benchmarks;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.jmb.tuto.spring.databinding.formatters.DateFormatter;
+
+/**
+ * Lecture et écriture de dates : <code>DateFormatter</code> et, comme référence, l'essai successif
+ * de <code>SimpleDateFormat</code>'s créés à chaque appel (implémentation d'origine)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateFormatterBenchmark {
+
+	static final String[] PATTERNS = { "dd/MM/yyyy", "yyyy-MM-dd", "dd-MM-yyyy", "yyyyMMdd" };
+
+	DateFormatter dateFormatter;
+	String[] values;
+	Date[] dates;
+
+	@Setup
+	public void setUp() throws ParseException {
+		dateFormatter = new DateFormatter(PATTERNS[0], PATTERNS[1], PATTERNS[2], PATTERNS[3]);
+		values = Datasets.dates(1024, new Random(42));
+		dates = new Date[values.length];
+		for (int i = 0; i < values.length; i++) {
+			dates[i] = legacyParse(values[i]);
+		}
+	}
+
+	@Benchmark
+	public void parse(Blackhole blackhole) {
+		for (String value : values) {
+			try {
+				blackhole.consume(dateFormatter.parse(value, Locale.FRANCE));
+			} catch (ParseException e) {
+				blackhole.consume(e);
+			}
+		}
+	}
+
+	@Benchmark
+	public void legacyParse(Blackhole blackhole) {
+		for (String value : values) {
+			blackhole.consume(legacyParse(value));
+		}
+	}
+
+	@Benchmark
+	public void print(Blackhole blackhole) {
+		for (Date date : dates) {
+			blackhole.consume(dateFormatter.print(date, Locale.FRANCE));
+		}
+	}
+
+	static Date legacyParse(String value) {
+		for (String pattern : PATTERNS) {
+			DateFormat dateFormat = new SimpleDateFormat(pattern);
+			try {
+				return dateFormat.parse(value);
+			} catch (ParseException e) {
+				// pattern suivant
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,64 @@
+package net.jmb.tuto.spring.databinding.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.jmb.tuto.spring.databinding.validators.constraints.InseeConstraintValidator;
+
+/**
+ * Validation @Insee(withKey = true) : expression régulière compilée à chaque appel (implémentation d'origine),
+ * expression régulière pré-compilée et scanner en une passe avec contrôle de la clé
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InseeValidationBenchmark {
+
+	static final String INSEE_REGEX = "[12][0-9]{2}(0[1-9]|1[0-2])(0[1-9]|[1-9][0-9])[0-9]{8}";
+	static final Pattern INSEE_PATTERN = Pattern.compile(INSEE_REGEX);
+
+	String[] values;
+
+	@Setup
+	public void setUp() {
+		values = Datasets.inseeNumbers(1024, new Random(42));
+	}
+
+	@Benchmark
+	public void regex(Blackhole blackhole) {
+		for (String value : values) {
+			blackhole.consume(value.matches(INSEE_REGEX));
+		}
+	}
+
+	@Benchmark
+	public void precompiledRegex(Blackhole blackhole) {
+		for (String value : values) {
+			blackhole.consume(INSEE_PATTERN.matcher(value).matches());
+		}
+	}
+
+	@Benchmark
+	public void scanner(Blackhole blackhole) {
+		for (String value : values) {
+			blackhole.consume(InseeConstraintValidator.isValidInsee(value, true));
+		}
+	}
+
+}
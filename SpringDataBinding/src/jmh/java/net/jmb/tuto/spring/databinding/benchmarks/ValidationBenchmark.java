@@ -0,0 +1,126 @@
+package net.jmb.tuto.spring.databinding.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.ValidationUtils;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import net.jmb.tuto.spring.databinding.DataBinderValidationApp;
+import net.jmb.tuto.spring.databinding.beans.Person;
+import net.jmb.tuto.spring.databinding.services.PersonService;
+import net.jmb.tuto.spring.databinding.validators.AdressValidator;
+import net.jmb.tuto.spring.databinding.validators.ValidationOptions;
+import net.jmb.tuto.spring.databinding.validators.compiled.CompiledBeanValidator;
+
+/**
+ * Validation de personnes (environ la moitié invalides) :
+ * <ul>
+ * <li><code>PersonValidator</code> (dont <code>AdressValidator</code>) complet et en mode fail-fast
+ * <li><code>AdressValidator</code> seul
+ * <li>Bean Validation via <code>LocalValidatorFactoryBean</code> (<code>AnnotationValidationApp</code>)
+ * <li>validator généré <code>CompiledBeanValidator</code>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+	AnnotationConfigApplicationContext context;
+	Validator personValidator;
+	Validator adressValidator;
+	PersonService personService;
+	LocalValidatorFactoryBean beanValidator;
+	Validator compiledValidator;
+	Person[] persons;
+
+	@Setup
+	public void setUp() {
+		context = new AnnotationConfigApplicationContext(DataBinderValidationApp.class);
+		personValidator = context.getBean("personValidator", Validator.class);
+		adressValidator = context.getBean(AdressValidator.class);
+		personService = context.getBean(PersonService.class);
+		beanValidator = new LocalValidatorFactoryBean();
+		beanValidator.afterPropertiesSet();
+		compiledValidator = CompiledBeanValidator.forClass(Person.class);
+		persons = Datasets.persons(1024, new Random(42));
+	}
+
+	@TearDown
+	public void tearDown() {
+		beanValidator.close();
+		context.close();
+	}
+
+	@Benchmark
+	public void personValidator(Blackhole blackhole) {
+		for (Person person : persons) {
+			Errors errors = new BeanPropertyBindingResult(person, "person");
+			ValidationUtils.invokeValidator(personValidator, person, errors);
+			blackhole.consume(errors);
+		}
+	}
+
+	@Benchmark
+	public void adressValidator(Blackhole blackhole) {
+		for (Person person : persons) {
+			if (person.getAdress() != null) {
+				Errors errors = new BeanPropertyBindingResult(person.getAdress(), "adress");
+				ValidationUtils.invokeValidator(adressValidator, person.getAdress(), errors);
+				blackhole.consume(errors);
+			}
+		}
+	}
+
+	@Benchmark
+	public void personValidatorFailFast(Blackhole blackhole) {
+		for (Person person : persons) {
+			blackhole.consume(personService.isValid(person));
+		}
+	}
+
+	@Benchmark
+	public void personValidatorPostalCodeOnly(Blackhole blackhole) {
+		ValidationOptions options = ValidationOptions.only("adress.postalCode");
+		for (Person person : persons) {
+			blackhole.consume(personService.isValid(person, options));
+		}
+	}
+
+	@Benchmark
+	public void beanValidation(Blackhole blackhole) {
+		for (Person person : persons) {
+			blackhole.consume(beanValidator.validate(person));
+		}
+	}
+
+	@Benchmark
+	public void compiledValidator(Blackhole blackhole) {
+		for (Person person : persons) {
+			Errors errors = new BeanPropertyBindingResult(person, "person");
+			compiledValidator.validate(person, errors);
+			blackhole.consume(errors);
+		}
+	}
+
+}
@@ -9,10 +9,13 @@ import org.springframework.context.annotation.AnnotationConfigApplicationContext
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
 import net.jmb.tuto.spring.databinding.beans.Adress;
 import net.jmb.tuto.spring.databinding.beans.Person;
+import net.jmb.tuto.spring.databinding.validators.compiled.CompiledBeanValidator;
 
 @Configuration
 @ComponentScan()
@@ -30,6 +33,11 @@ public class AnnotationValidationApp {
 		Set<ConstraintViolation<Person>> violations = validator.validate(person);
 		violations.forEach(error -> System.out.println(error.getPropertyPath() + ": " + error.getMessage()));
 
+		// Mêmes contraintes évaluées par un validator généré au démarrage, sans réflexion lors de la validation
+		Errors errors = new BeanPropertyBindingResult(person, "person");
+		CompiledBeanValidator.forClass(Person.class).validate(person, errors);
+		errors.getFieldErrors().forEach(error -> System.out.println(error.getField() + ": " + error.getDefaultMessage()));
+
 		ctx.close();
 	}
 
@@ -3,7 +3,6 @@ package net.jmb.tuto.spring.databinding;
 import java.beans.PropertyEditor;
 import java.text.SimpleDateFormat;
 import java.util.HashMap;
-import java.util.Locale;
 import java.util.Map;
 
 import org.springframework.beans.propertyeditors.CustomDateEditor;
@@ -12,13 +11,16 @@ import org.springframework.context.annotation.AnnotationConfigApplicationContext
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.support.StaticMessageSource;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.format.support.FormattingConversionService;
 import org.springframework.validation.BindingResult;
 
 import net.jmb.tuto.spring.databinding.beans.Person;
+import net.jmb.tuto.spring.databinding.errors.AsyncValidationErrorSink;
+import net.jmb.tuto.spring.databinding.errors.MessageSourceErrorRenderer;
+import net.jmb.tuto.spring.databinding.errors.ValidationErrorSink;
 import net.jmb.tuto.spring.databinding.formatters.DateFormatter;
+import net.jmb.tuto.spring.databinding.messages.PrecompiledMessageSource;
 import net.jmb.tuto.spring.databinding.services.PersonService;
 
 @Configuration
@@ -44,6 +46,7 @@ public class DataBinderValidationApp {
 		
 		// Utilise un DataBinder pour valider les champs et retourner un BindingResult
 		BindingResult bindingResult = personService.validatePerson(person);
+		ctx.getBean(ValidationErrorSink.class).flush();
 		System.out.println(bindingResult);
 		
 		ctx.close();
@@ -73,20 +76,26 @@ public class DataBinderValidationApp {
 		return dateEditor;
 	}
 	
+	/**
+	 * Messages pré-compilés au démarrage (messages de <code>ApplicationMessages</code> complétés 
+	 * par ceux de ValidationMessages.properties) avec cache des messages formatés
+	 */
 	@Bean
 	MessageSource messageSource() {	
-		
-		StaticMessageSource messageSource = new StaticMessageSource();		
-		Locale locale = Locale.getDefault();
-		ApplicationMessages.MESSAGES.forEach(
-			(code, msg) -> messageSource.addMessage((String) code, locale, (String) msg)
-		);		
-		// Mieux si c'est à partir de fichiers de propriétés via un ResourceBundle 
-		//		ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
-		//		messageSource.setBasenames("ValidationMessages");
-
+		PrecompiledMessageSource messageSource = new PrecompiledMessageSource();
+		messageSource.setDefaultMessages(ApplicationMessages.MESSAGES);
+		messageSource.setBasenames("ValidationMessages");
 		return messageSource;		
 	}
+
+	/**
+	 * Les erreurs de validation sont affichées par un thread dédié, 
+	 * afin de ne pas ralentir les threads de validation par les écritures console
+	 */
+	@Bean
+	ValidationErrorSink validationErrorSink(MessageSource messageSource) {
+		return new AsyncValidationErrorSink(1024, new MessageSourceErrorRenderer(messageSource, System.out));
+	}
 	
 	
 
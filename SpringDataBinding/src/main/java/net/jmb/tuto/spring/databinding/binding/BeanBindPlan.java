@@ -0,0 +1,67 @@
+package net.jmb.tuto.spring.databinding.binding;
+
+import java.lang.reflect.Constructor;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Plan de binding pré-calculé pour une classe cible et un ensemble de chemins de propriétés donnés.
+ * <p>
+ * Contrairement à un <code>DataBinder</code> créé pour chaque objet, le plan résout une seule fois
+ * le constructeur par défaut ainsi que la chaîne d'accesseurs de chaque chemin (voir {@link PropertyPathBinder}).
+ * Il est ensuite réutilisé pour alimenter autant d'objets que nécessaire, y compris depuis plusieurs threads.
+ * <p>
+ * Comme pour <code>PersonService.getBeanFromProperties</code>, les propriétés inconnues
+ * ou non convertibles sont ignorées.
+ */
+public class BeanBindPlan<T> {
+
+	private final Class<T> beanClass;
+	private final Constructor<T> constructor;
+	private final PropertyPathBinder[] binders;
+
+	public BeanBindPlan(Class<T> beanClass, Set<String> propertyPaths, ConversionService conversionService) {
+		this.beanClass = beanClass;
+		try {
+			this.constructor = ReflectionUtils.accessibleConstructor(beanClass);
+		} catch (NoSuchMethodException e) {
+			throw new BeanInstantiationException(beanClass, "Aucun constructeur par défaut", e);
+		}
+		this.binders = propertyPaths.stream()
+				.sorted()
+				.map(propertyPath -> PropertyPathBinder.compile(beanClass, propertyPath, conversionService))
+				.toArray(PropertyPathBinder[]::new);
+	}
+
+	public Class<T> getBeanClass() {
+		return beanClass;
+	}
+
+	/**
+	 * Crée une nouvelle instance de la classe cible et l'alimente à partir des propriétés fournies.
+	 * Seuls les chemins pour lesquels le plan a été compilé sont pris en compte.
+	 */
+	public T bind(Map<String, Object> properties) {
+		T bean = newInstance();
+		for (PropertyPathBinder binder : binders) {
+			Object value = properties.get(binder.getPropertyPath());
+			if (value != null || properties.containsKey(binder.getPropertyPath())) {
+				binder.bind(bean, value);
+			}
+		}
+		return bean;
+	}
+
+	protected T newInstance() {
+		try {
+			return constructor.newInstance();
+		} catch (ReflectiveOperationException e) {
+			throw new BeanInstantiationException(constructor, e.getMessage(), e);
+		}
+	}
+
+}
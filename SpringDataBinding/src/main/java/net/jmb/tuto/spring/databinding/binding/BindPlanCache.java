@@ -0,0 +1,147 @@
+package net.jmb.tuto.spring.databinding.binding;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.convert.ConversionService;
+
+/**
+ * Cache des <code>BeanBindPlan</code>'s indexé par (classe cible, ensemble des noms de propriétés).
+ * <p>
+ * Sur le chemin critique, la recherche n'utilise que le <code>keySet()</code> des propriétés fournies,
+ * sans copie : la clé n'est copiée qu'à la compilation d'un nouveau plan.
+ * <p>
+ * Le cache doit être vidé quand les conversions ou les classes cibles changent
+ * (rafraîchissement du contexte, rechargement de classes) : voir {@link #clear()} et {@link #clearClassLoader(ClassLoader)}.
+ * Lorsque <code>maxSize</code> plans sont en cache, la moitié la moins récemment utilisée est évincée en une fois
+ * avant d'ajouter le suivant : l'éviction est amortie sur les compilations, la lecture reste sans verrou.
+ * L'horloge d'utilisation n'avance qu'à chaque compilation, l'ordre LRU est donc approché à une compilation près.
+ */
+public class BindPlanCache {
+
+	public static final int DEFAULT_MAX_SIZE = 256;
+
+	private final ConversionService conversionService;
+	private final int maxSize;
+	private final Map<PlanKey, CachedPlan> plans = new ConcurrentHashMap<>();
+	private final AtomicLong clock = new AtomicLong();
+
+	public BindPlanCache(ConversionService conversionService) {
+		this(conversionService, DEFAULT_MAX_SIZE);
+	}
+
+	public BindPlanCache(ConversionService conversionService, int maxSize) {
+		this.conversionService = conversionService;
+		this.maxSize = maxSize;
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> BeanBindPlan<T> getPlan(Class<T> beanClass, Set<String> propertyPaths) {
+		CachedPlan cached = plans.get(new PlanKey(beanClass, propertyPaths));
+		if (cached != null) {
+			cached.touch(clock.get());
+		} else {
+			PlanKey key = new PlanKey(beanClass, Collections.unmodifiableSet(new HashSet<>(propertyPaths)));
+			if (plans.size() >= maxSize) {
+				evict();
+			}
+			cached = plans.computeIfAbsent(key,
+					k -> new CachedPlan(new BeanBindPlan<>(beanClass, k.propertyPaths, conversionService), clock.incrementAndGet()));
+		}
+		return (BeanBindPlan<T>) cached.plan;
+	}
+
+	/**
+	 * Eviction de la moitié (au moins) des plans, les moins récemment utilisés
+	 */
+	private synchronized void evict() {
+		if (plans.size() < maxSize) {
+			return;
+		}
+		long[] lastUses = plans.values().stream().mapToLong(cached -> cached.lastUse).sorted().toArray();
+		if (lastUses.length > 0) {
+			long threshold = lastUses[(lastUses.length - 1) / 2];
+			plans.values().removeIf(cached -> cached.lastUse <= threshold);
+		}
+	}
+
+	public int size() {
+		return plans.size();
+	}
+
+	public void clear() {
+		plans.clear();
+	}
+
+	/**
+	 * Supprime les plans dont la classe cible a été chargée par le <code>ClassLoader</code> donné
+	 * (ou l'un de ses descendants)
+	 */
+	public void clearClassLoader(ClassLoader classLoader) {
+		plans.keySet().removeIf(key -> isUnderneathClassLoader(key.beanClass.getClassLoader(), classLoader));
+	}
+
+	private static boolean isUnderneathClassLoader(ClassLoader candidate, ClassLoader parent) {
+		for (ClassLoader classLoader = candidate; classLoader != null; classLoader = classLoader.getParent()) {
+			if (classLoader == parent) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static final class CachedPlan {
+
+		final BeanBindPlan<?> plan;
+		// Ecriture non synchronisée : une utilisation perdue ne fausse que l'ordre d'éviction
+		long lastUse;
+
+		CachedPlan(BeanBindPlan<?> plan, long lastUse) {
+			this.plan = plan;
+			this.lastUse = lastUse;
+		}
+
+		void touch(long now) {
+			if (lastUse != now) {
+				lastUse = now;
+			}
+		}
+	}
+
+	private static final class PlanKey {
+
+		private final Class<?> beanClass;
+		private final Set<String> propertyPaths;
+		private final int hashCode;
+
+		PlanKey(Class<?> beanClass, Set<String> propertyPaths) {
+			this.beanClass = beanClass;
+			this.propertyPaths = propertyPaths;
+			this.hashCode = 31 * beanClass.hashCode() + propertyPaths.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof PlanKey)) {
+				return false;
+			}
+			PlanKey otherKey = (PlanKey) other;
+			return beanClass == otherKey.beanClass && hashCode == otherKey.hashCode
+					&& Objects.equals(propertyPaths, otherKey.propertyPaths);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+}
@@ -0,0 +1,205 @@
+package net.jmb.tuto.spring.databinding.binding;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.Property;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Affectation compilée d'un chemin de propriété (ex: <code>"name"</code> ou <code>"adress.city"</code>).
+ * <p>
+ * Le chemin est résolu une seule fois en une chaîne d'accesseurs : pour chaque segment intermédiaire
+ * le getter, le setter et le constructeur servant à créer l'objet s'il est absent (auto-growing),
+ * puis le setter et le <code>TypeDescriptor</code> du dernier segment.
+ * L'affectation n'effectue ensuite plus aucune introspection.
+ */
+public abstract class PropertyPathBinder {
+
+	private final String propertyPath;
+
+	protected PropertyPathBinder(String propertyPath) {
+		this.propertyPath = propertyPath;
+	}
+
+	public String getPropertyPath() {
+		return propertyPath;
+	}
+
+	/**
+	 * Affecte la valeur (convertie si nécessaire) au chemin de propriété de l'objet racine.
+	 * Comme pour <code>DataBinder</code>, une valeur non convertible est ignorée.
+	 */
+	public abstract void bind(Object root, Object value);
+
+	/**
+	 * Compile le chemin de propriété pour la classe racine donnée.
+	 * Les chemins indexés (<code>"list[0]"</code>, <code>"map[key]"</code>) ne sont pas compilés
+	 * et restent délégués à un <code>BeanWrapper</code>.
+	 */
+	public static PropertyPathBinder compile(Class<?> rootClass, String propertyPath, ConversionService conversionService) {
+		if (propertyPath.indexOf('[') >= 0) {
+			return new WrapperBinder(propertyPath, conversionService);
+		}
+		String[] names = propertyPath.split("\\.");
+		Step[] steps = new Step[names.length - 1];
+		Class<?> currentClass = rootClass;
+
+		for (int i = 0; i < steps.length; i++) {
+			PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(currentClass, names[i]);
+			if (descriptor == null || descriptor.getReadMethod() == null) {
+				return new IgnoredBinder(propertyPath);
+			}
+			steps[i] = new Step(descriptor);
+			currentClass = descriptor.getPropertyType();
+		}
+
+		String lastName = names[names.length - 1];
+		PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(currentClass, lastName);
+		if (descriptor == null || descriptor.getWriteMethod() == null) {
+			return new IgnoredBinder(propertyPath);
+		}
+		Method writeMethod = descriptor.getWriteMethod();
+		ReflectionUtils.makeAccessible(writeMethod);
+		TypeDescriptor targetType = new TypeDescriptor(
+				new Property(currentClass, descriptor.getReadMethod(), writeMethod, lastName));
+		return new CompiledBinder(propertyPath, steps, writeMethod, targetType, conversionService);
+	}
+
+	/**
+	 * Segment intermédiaire d'un chemin de propriété
+	 */
+	static class Step {
+
+		private final Method readMethod;
+		private final Method writeMethod;
+		private final Constructor<?> constructor;
+
+		Step(PropertyDescriptor descriptor) {
+			this.readMethod = descriptor.getReadMethod();
+			ReflectionUtils.makeAccessible(readMethod);
+			this.writeMethod = descriptor.getWriteMethod();
+			Constructor<?> defaultConstructor = null;
+			if (writeMethod != null) {
+				ReflectionUtils.makeAccessible(writeMethod);
+				try {
+					defaultConstructor = ReflectionUtils.accessibleConstructor(descriptor.getPropertyType());
+				} catch (NoSuchMethodException e) {
+					// Pas d'auto-growing possible pour ce segment
+				}
+			}
+			this.constructor = defaultConstructor;
+		}
+
+		/**
+		 * Retourne l'objet porté par ce segment en le créant s'il est absent
+		 */
+		Object getOrGrow(Object bean) {
+			Object value = ReflectionUtils.invokeMethod(readMethod, bean);
+			if (value == null && constructor != null) {
+				try {
+					value = constructor.newInstance();
+				} catch (ReflectiveOperationException e) {
+					throw new BeanInstantiationException(constructor, e.getMessage(), e);
+				}
+				ReflectionUtils.invokeMethod(writeMethod, bean, value);
+			}
+			return value;
+		}
+	}
+
+	static class CompiledBinder extends PropertyPathBinder {
+
+		private final Step[] steps;
+		private final Method writeMethod;
+		private final TypeDescriptor targetType;
+		private final ConversionService conversionService;
+
+		CompiledBinder(String propertyPath, Step[] steps, Method writeMethod, TypeDescriptor targetType,
+				ConversionService conversionService) {
+			super(propertyPath);
+			this.steps = steps;
+			this.writeMethod = writeMethod;
+			this.targetType = targetType;
+			this.conversionService = conversionService;
+		}
+
+		@Override
+		public void bind(Object root, Object value) {
+			Object converted;
+			try {
+				converted = convert(value);
+			} catch (ConversionException e) {
+				return;
+			}
+			Object bean = root;
+			for (Step step : steps) {
+				bean = step.getOrGrow(bean);
+				if (bean == null) {
+					return;
+				}
+			}
+			ReflectionUtils.invokeMethod(writeMethod, bean, converted);
+		}
+
+		/**
+		 * Conversion via le <code>ConversionService</code> applicatif, avec repli sur les conversions
+		 * par défaut (String vers Integer, ...) comme le fait un <code>BeanWrapper</code>
+		 */
+		private Object convert(Object value) {
+			if (value == null || targetType.getObjectType().isInstance(value)) {
+				return value;
+			}
+			TypeDescriptor sourceType = TypeDescriptor.forObject(value);
+			if (conversionService.canConvert(sourceType, targetType)) {
+				return conversionService.convert(value, sourceType, targetType);
+			}
+			return DefaultConversionService.getSharedInstance().convert(value, sourceType, targetType);
+		}
+	}
+
+	static class WrapperBinder extends PropertyPathBinder {
+
+		private final ConversionService conversionService;
+
+		WrapperBinder(String propertyPath, ConversionService conversionService) {
+			super(propertyPath);
+			this.conversionService = conversionService;
+		}
+
+		@Override
+		public void bind(Object root, Object value) {
+			BeanWrapper beanWrapper = PropertyAccessorFactory.forBeanPropertyAccess(root);
+			beanWrapper.setAutoGrowNestedPaths(true);
+			beanWrapper.setConversionService(conversionService);
+			try {
+				beanWrapper.setPropertyValue(getPropertyPath(), value);
+			} catch (BeansException e) {
+				// Même comportement que DataBinder : l'erreur n'est pas propagée
+			}
+		}
+	}
+
+	static class IgnoredBinder extends PropertyPathBinder {
+
+		IgnoredBinder(String propertyPath) {
+			super(propertyPath);
+		}
+
+		@Override
+		public void bind(Object root, Object value) {
+			// Propriété inconnue ou non modifiable : ignorée comme avec DataBinder
+		}
+	}
+
+}
@@ -0,0 +1,113 @@
+package net.jmb.tuto.spring.databinding.errors;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.validation.ObjectError;
+
+/**
+ * <code>ValidationErrorSink</code> asynchrone adossé à un buffer circulaire de taille fixe.
+ * <p>
+ * Les threads de validation réservent une case par CAS et y déposent l'erreur sans verrou ni formatage ;
+ * un unique thread consommateur vide le buffer et délègue chaque erreur au <code>renderer</code>,
+ * seul endroit où le message est résolu. Quand le buffer est plein, l'erreur est abandonnée
+ * et comptabilisée (voir {@link #getDroppedCount()}) plutôt que de bloquer la validation.
+ */
+public class AsyncValidationErrorSink implements ValidationErrorSink, DisposableBean {
+
+	private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private final AtomicReferenceArray<ObjectError> buffer;
+	private final int mask;
+	private final AtomicLong tail = new AtomicLong();
+	private volatile long head;
+	private final LongAdder droppedCount = new LongAdder();
+
+	private final Consumer<ObjectError> renderer;
+	private final Thread consumer;
+	private volatile boolean running = true;
+	private volatile boolean consumerWaiting;
+
+	/**
+	 * @param capacity taille du buffer, arrondie à la puissance de 2 supérieure
+	 */
+	public AsyncValidationErrorSink(int capacity, Consumer<ObjectError> renderer) {
+		int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+		this.buffer = new AtomicReferenceArray<>(size);
+		this.mask = size - 1;
+		this.renderer = renderer;
+		this.consumer = new Thread(this::consume, "validation-error-sink");
+		this.consumer.setDaemon(true);
+		this.consumer.start();
+	}
+
+	@Override
+	public void publish(ObjectError error) {
+		long sequence;
+		do {
+			sequence = tail.get();
+			if (sequence - head > mask) {
+				droppedCount.increment();
+				return;
+			}
+		} while (!tail.compareAndSet(sequence, sequence + 1));
+
+		buffer.set((int) sequence & mask, error);
+		if (consumerWaiting) {
+			LockSupport.unpark(consumer);
+		}
+	}
+
+	@Override
+	public void flush() {
+		long target = tail.get();
+		while (head < target && consumer.isAlive()) {
+			LockSupport.unpark(consumer);
+			Thread.yield();
+		}
+	}
+
+	public long getDroppedCount() {
+		return droppedCount.sum();
+	}
+
+	private void consume() {
+		while (running || head < tail.get()) {
+			int index = (int) head & mask;
+			ObjectError error = buffer.get(index);
+			if (error == null) {
+				if (head == tail.get()) {
+					consumerWaiting = true;
+					if (head == tail.get() && running) {
+						LockSupport.parkNanos(this, MAX_PARK_NANOS);
+					}
+					consumerWaiting = false;
+				} else {
+					// Case réservée mais pas encore écrite par le producteur
+					Thread.yield();
+				}
+				continue;
+			}
+			buffer.set(index, null);
+			try {
+				renderer.accept(error);
+			} catch (RuntimeException e) {
+				e.printStackTrace();
+			}
+			head++;
+		}
+	}
+
+	@Override
+	public void destroy() throws InterruptedException {
+		running = false;
+		LockSupport.unpark(consumer);
+		consumer.join(TimeUnit.SECONDS.toMillis(5));
+	}
+
+}
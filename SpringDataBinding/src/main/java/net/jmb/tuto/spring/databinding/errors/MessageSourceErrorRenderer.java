@@ -0,0 +1,47 @@
+package net.jmb.tuto.spring.databinding.errors;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+import org.springframework.context.MessageSource;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+
+/**
+ * Affiche une erreur de validation en résolvant son message via le <code>MessageSource</code>.
+ * Pour une <code>FieldError</code>, le nom du champ est passé en premier argument du message.
+ */
+public class MessageSourceErrorRenderer implements Consumer<ObjectError> {
+
+	private final MessageSource messageSource;
+	private final PrintStream out;
+	private final Locale locale;
+
+	public MessageSourceErrorRenderer(MessageSource messageSource, PrintStream out) {
+		this(messageSource, out, Locale.getDefault());
+	}
+
+	public MessageSourceErrorRenderer(MessageSource messageSource, PrintStream out, Locale locale) {
+		this.messageSource = messageSource;
+		this.out = out;
+		this.locale = locale;
+	}
+
+	@Override
+	public void accept(ObjectError error) {
+		out.println(render(error));
+	}
+
+	public String render(ObjectError error) {
+		Object[] arguments = error.getArguments() != null ? error.getArguments() : new Object[0];
+		if (error instanceof FieldError) {
+			Object[] params = new Object[arguments.length + 1];
+			params[0] = ((FieldError) error).getField();
+			System.arraycopy(arguments, 0, params, 1, arguments.length);
+			arguments = params;
+		}
+		return messageSource.getMessage(error.getCode(), arguments, error.getDefaultMessage(), locale);
+	}
+
+}
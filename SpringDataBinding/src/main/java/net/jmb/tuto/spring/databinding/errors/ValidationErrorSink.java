@@ -0,0 +1,24 @@
+package net.jmb.tuto.spring.databinding.errors;
+
+import org.springframework.validation.ObjectError;
+
+/**
+ * Destination des erreurs de validation.
+ * <p>
+ * Les erreurs sont transmises telles quelles (<code>MessageSourceResolvable</code>) : la résolution du message
+ * est laissée à l'implémentation, qui peut la différer ou ne jamais l'effectuer.
+ */
+public interface ValidationErrorSink {
+
+	/**
+	 * Ne doit pas bloquer l'appelant
+	 */
+	void publish(ObjectError error);
+
+	/**
+	 * Attend que les erreurs déjà publiées aient été traitées
+	 */
+	default void flush() {
+	}
+
+}
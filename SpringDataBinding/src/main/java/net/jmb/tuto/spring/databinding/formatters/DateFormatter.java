@@ -1,66 +1,250 @@
 package net.jmb.tuto.spring.databinding.formatters;
 
-import java.text.DateFormat;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
 import java.util.Date;
-import java.util.List;
 import java.util.Locale;
-import java.util.stream.Collectors;
 
 import org.springframework.format.Formatter;
 
+/**
+ * <code>Formatter</code> de dates acceptant plusieurs patterns en lecture.
+ * <p>
+ * Les patterns sont compilés une seule fois en <code>DateTimeFormatter</code>'s immuables : le formatter est thread-safe.
+ * En lecture, les patterns numériques (<code>dd/MM/yyyy</code>, <code>yyyyMMdd</code>, ...) sont lus directement,
+ * champ par champ et séparateur par séparateur, sans essais successifs ; les autres sont délégués à <code>DateTimeFormatter</code>.
+ * Comme avec un <code>SimpleDateFormat</code>, un jour, mois, heure, minute ou seconde entre deux séparateurs peut n'avoir
+ * qu'un chiffre (<code>1/2/2020</code> pour <code>dd/MM/yyyy</code>) ; les champs accolés (<code>yyyyMMdd</code>)
+ * gardent leur largeur, et l'année a toujours 4 chiffres.
+ * Aucune exception n'est levée tant qu'un pattern ne correspond pas ; seul l'échec final lève une <code>ParseException</code>.
+ */
 public final class DateFormatter implements Formatter<Date> {
 
-    private String preferredPattern;
-    private String[] otherPatterns;
+    private final DatePattern preferredPattern;
+    private final DatePattern[] allPatterns;
 
     public DateFormatter(String preferredPattern, String... otherPatterns) {
-        this.preferredPattern = preferredPattern;
-        this.otherPatterns = otherPatterns;
+        int otherCount = otherPatterns != null ? otherPatterns.length : 0;
+        this.allPatterns = new DatePattern[otherCount + 1];
+        this.allPatterns[0] = new DatePattern(preferredPattern);
+        for (int i = 0; i < otherCount; i++) {
+            this.allPatterns[i + 1] = new DatePattern(otherPatterns[i]);
+        }
+        this.preferredPattern = allPatterns[0];
     }
 
     public String print(Date date, Locale locale) {
         if (date == null) {
             return "";
         }
-        return getDateFormat(locale).format(date);
+        return preferredPattern.getFormatter(locale).format(date.toInstant().atZone(ZoneId.systemDefault()));
     }
 
     public Date parse(String formatted, Locale locale) throws ParseException {
-    	Date result = null;
-    	if (formatted.length() > 0) {
-        	result = getAllDateFormats(locale).stream()
-        		.map(dateFormat -> {
-        			try {
-        				return dateFormat.parse(formatted);
-        			} catch (ParseException e) {
-        				return null;
-        			}        		
-        		})
-        		.filter(date -> date != null)
-        		.findFirst().get();
-        }        
-        return result;
+        if (formatted.length() == 0) {
+            return null;
+        }
+        for (DatePattern pattern : allPatterns) {
+            Date date = pattern.parse(formatted, locale);
+            if (date != null) {
+                return date;
+            }
+        }
+        throw new ParseException("Date non reconnue : \"" + formatted + "\"", 0);
     }
 
-    protected DateFormat getDateFormat(Locale locale) {
-        DateFormat dateFormat = new SimpleDateFormat(preferredPattern, locale);
-        dateFormat.setLenient(false);
-        return dateFormat;
-    }
-    
-    @SuppressWarnings("serial")
-	protected List<DateFormat> getAllDateFormats(Locale locale) {
-    	
-    	List<String> allPatterns = new ArrayList<String>() {{ add(preferredPattern); }};
-    	if (otherPatterns != null) {
-    		allPatterns.addAll(Arrays.asList(otherPatterns));
-    	}
-    	return allPatterns.stream()
-    			.map(pattern -> new SimpleDateFormat(pattern))
-    			.collect(Collectors.toList());
+    /**
+     * Pattern compilé : <code>DateTimeFormatter</code> et, pour un pattern numérique, la suite de ses éléments
+     * (champ et nombre de chiffres admis, ou séparateur)
+     */
+    static final class DatePattern {
+
+        private static final int YEAR = 0, MONTH = 1, DAY = 2, HOUR = 3, MINUTE = 4, SECOND = 5;
+        private static final int LITERAL = -1;
+
+        private final DateTimeFormatter formatter;
+        // Par élément : champ (ou LITERAL), séparateur attendu, nombre de chiffres minimal et maximal
+        private int[] fields;
+        private char[] literals;
+        private int[] minWidths;
+        private int[] maxWidths;
+
+        DatePattern(String pattern) {
+            this.formatter = DateTimeFormatter.ofPattern(pattern);
+            compile(pattern);
+        }
+
+        DateTimeFormatter getFormatter(Locale locale) {
+            return fields != null ? formatter : formatter.withLocale(locale);
+        }
+
+        /**
+         * Retourne la date lue ou <code>null</code> si le texte ne correspond pas au pattern
+         */
+        Date parse(String text, Locale locale) {
+            if (fields == null) {
+                return parseWithFormatter(text, locale);
+            }
+            int[] values = new int[6];
+            int position = 0;
+            for (int i = 0; i < fields.length; i++) {
+                if (fields[i] == LITERAL) {
+                    if (position >= text.length() || text.charAt(position) != literals[i]) {
+                        return null;
+                    }
+                    position++;
+                } else {
+                    int start = position;
+                    int value = 0;
+                    while (position < text.length() && position - start < maxWidths[i]) {
+                        char c = text.charAt(position);
+                        if (c < '0' || c > '9') {
+                            break;
+                        }
+                        value = value * 10 + (c - '0');
+                        position++;
+                    }
+                    if (position - start < minWidths[i]) {
+                        return null;
+                    }
+                    values[fields[i]] = value;
+                }
+            }
+            if (position != text.length()) {
+                return null;
+            }
+            return toDate(values[YEAR], values[MONTH], values[DAY], values[HOUR], values[MINUTE], values[SECOND]);
+        }
+
+        private Date parseWithFormatter(String text, Locale locale) {
+            ParsePosition position = new ParsePosition(0);
+            TemporalAccessor parsed = getFormatter(locale).parseUnresolved(text, position);
+            if (parsed == null || position.getErrorIndex() >= 0 || position.getIndex() != text.length()) {
+                return null;
+            }
+            ChronoField yearField = parsed.isSupported(ChronoField.YEAR) ? ChronoField.YEAR : ChronoField.YEAR_OF_ERA;
+            if (!parsed.isSupported(yearField) || !parsed.isSupported(ChronoField.MONTH_OF_YEAR)
+                    || !parsed.isSupported(ChronoField.DAY_OF_MONTH)) {
+                return resolveWithFormatter(text, locale);
+            }
+            return toDate((int) parsed.getLong(yearField),
+                    (int) parsed.getLong(ChronoField.MONTH_OF_YEAR),
+                    (int) parsed.getLong(ChronoField.DAY_OF_MONTH),
+                    getField(parsed, ChronoField.HOUR_OF_DAY),
+                    getField(parsed, ChronoField.MINUTE_OF_HOUR),
+                    getField(parsed, ChronoField.SECOND_OF_MINUTE));
+        }
+
+        /**
+         * Cas marginal (pattern sans jour/mois/année explicites) : résolution complète par <code>DateTimeFormatter</code>
+         */
+        private Date resolveWithFormatter(String text, Locale locale) {
+            try {
+                return Date.from(LocalDateTime.parse(text, getFormatter(locale)).atZone(ZoneId.systemDefault()).toInstant());
+            } catch (DateTimeException e) {
+                return null;
+            }
+        }
+
+        private static int getField(TemporalAccessor parsed, ChronoField field) {
+            return parsed.isSupported(field) ? (int) parsed.getLong(field) : 0;
+        }
+
+        /**
+         * Contrôle strict des valeurs (pas de report comme avec un <code>SimpleDateFormat</code> lenient)
+         */
+        private static Date toDate(int year, int month, int day, int hour, int minute, int second) {
+            if (month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))
+                    || hour > 23 || minute > 59 || second > 59) {
+                return null;
+            }
+            LocalDateTime dateTime = LocalDateTime.of(year, month, day, hour, minute, second);
+            return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+        }
+
+        /**
+         * Compile un pattern numérique en éléments ; <code>fields</code> reste <code>null</code> si le pattern
+         * contient des champs textuels, inconnus ou répétés, ou des littéraux entre quotes
+         */
+        private void compile(String pattern) {
+            int count = 0;
+            int[] compiledFields = new int[pattern.length()];
+            char[] compiledLiterals = new char[pattern.length()];
+            int[] widths = new int[pattern.length()];
+            boolean[] seen = new boolean[6];
+            int i = 0;
+            while (i < pattern.length()) {
+                char c = pattern.charAt(i);
+                int end = i;
+                while (end < pattern.length() && pattern.charAt(end) == c) {
+                    end++;
+                }
+                int width = end - i;
+                if (c == '\'') {
+                    return;
+                }
+                if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                    int field = field(c, width);
+                    if (field == LITERAL || seen[field]) {
+                        return;
+                    }
+                    seen[field] = true;
+                    compiledFields[count] = field;
+                    widths[count++] = width;
+                } else {
+                    for (int j = i; j < end; j++) {
+                        compiledFields[count] = LITERAL;
+                        compiledLiterals[count++] = c;
+                    }
+                }
+                i = end;
+            }
+            if (!seen[YEAR] || !seen[MONTH] || !seen[DAY]) {
+                return;
+            }
+            fields = new int[count];
+            literals = new char[count];
+            minWidths = new int[count];
+            maxWidths = new int[count];
+            for (int j = 0; j < count; j++) {
+                fields[j] = compiledFields[j];
+                literals[j] = compiledLiterals[j];
+                maxWidths[j] = widths[j];
+                boolean adjacent = j > 0 && compiledFields[j - 1] != LITERAL
+                        || j + 1 < count && compiledFields[j + 1] != LITERAL;
+                minWidths[j] = fields[j] == LITERAL || fields[j] == YEAR || adjacent ? widths[j] : 1;
+            }
+        }
+
+        /**
+         * Champ numérique désigné par une lettre du pattern, <code>LITERAL</code> s'il n'est pas pris en charge
+         */
+        private static int field(char letter, int width) {
+            switch (letter) {
+            case 'y':
+            case 'u':
+                return width == 4 ? YEAR : LITERAL;
+            case 'M':
+                return width == 2 ? MONTH : LITERAL;
+            case 'd':
+                return width == 2 ? DAY : LITERAL;
+            case 'H':
+                return width == 2 ? HOUR : LITERAL;
+            case 'm':
+                return width == 2 ? MINUTE : LITERAL;
+            case 's':
+                return width == 2 ? SECOND : LITERAL;
+            default:
+                return LITERAL;
+            }
+        }
     }
 }
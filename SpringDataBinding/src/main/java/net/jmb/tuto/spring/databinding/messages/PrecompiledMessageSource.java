@@ -0,0 +1,222 @@
+package net.jmb.tuto.spring.databinding.messages;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.Properties;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.support.AbstractMessageSource;
+import org.springframework.util.ClassUtils;
+
+/**
+ * <code>MessageSource</code> dont les messages sont pré-compilés en <code>MessageFormat</code>'s, par locale, au démarrage :
+ * <ul>
+ * <li>messages par défaut (ex: <code>ApplicationMessages.MESSAGES</code>), communs à toutes les locales
+ * <li>complétés ou surchargés par les fichiers de propriétés déclarés (ex: <code>ValidationMessages.properties</code>)
+ * </ul>
+ * Les messages formatés sont de plus mis en cache par (code, locale, arguments), dans la limite de <code>cacheSize</code>
+ * entrées, lorsque les arguments sont des valeurs immuables (String, nombres, booléens, enums). Le cache est découpé
+ * en segments (choisis par le hash de la clé), chacun étant une <code>LinkedHashMap</code> synchronisée à éviction LRU :
+ * les threads ne se bloquent que s'ils accèdent au même segment.
+ * <p>
+ * Un message qui n'est pas un pattern <code>MessageFormat</code> valide (ex: <code>${validatedValue}</code>
+ * des messages Bean Validation) est restitué tel quel.
+ */
+public class PrecompiledMessageSource extends AbstractMessageSource implements InitializingBean {
+
+	public static final int DEFAULT_CACHE_SIZE = 4096;
+
+	private static final int SEGMENTS = 16;
+
+	private String[] basenames = new String[0];
+	private Properties defaultMessages = new Properties();
+	private Locale[] locales = { Locale.getDefault() };
+	private int cacheSize = DEFAULT_CACHE_SIZE;
+
+	private final Map<Locale, Map<String, CompiledMessage>> compiledMessages = new ConcurrentHashMap<>();
+	private Map<MessageKey, String>[] formattedMessages;
+
+	public void setBasenames(String... basenames) {
+		this.basenames = basenames;
+	}
+
+	public void setDefaultMessages(Properties defaultMessages) {
+		this.defaultMessages = defaultMessages;
+	}
+
+	/**
+	 * Locales pré-compilées au démarrage ; les autres le sont à leur première utilisation
+	 */
+	public void setLocales(Locale... locales) {
+		this.locales = locales;
+	}
+
+	public void setCacheSize(int cacheSize) {
+		this.cacheSize = cacheSize;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void afterPropertiesSet() {
+		int segmentSize = Math.max(1, cacheSize / SEGMENTS);
+		Map<MessageKey, String>[] segments = new Map[SEGMENTS];
+		for (int i = 0; i < SEGMENTS; i++) {
+			segments[i] = new LinkedHashMap<MessageKey, String>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<MessageKey, String> eldest) {
+					return size() > segmentSize;
+				}
+			};
+		}
+		formattedMessages = segments;
+		for (Locale locale : locales) {
+			getCompiledMessages(locale);
+		}
+	}
+
+	@Override
+	protected String getMessageInternal(String code, Object[] args, Locale locale) {
+		if (code == null || formattedMessages == null || !isCacheable(args)) {
+			return super.getMessageInternal(code, args, locale);
+		}
+		MessageKey key = new MessageKey(code, locale != null ? locale : Locale.getDefault(), args);
+		Map<MessageKey, String> segment = formattedMessages[key.hashCode & (SEGMENTS - 1)];
+		String message;
+		synchronized (segment) {
+			message = segment.get(key);
+		}
+		if (message == null) {
+			message = super.getMessageInternal(code, args, locale);
+			if (message != null) {
+				MessageKey storedKey = key.copy();
+				synchronized (segment) {
+					segment.put(storedKey, message);
+				}
+			}
+		}
+		return message;
+	}
+
+	@Override
+	protected String resolveCodeWithoutArguments(String code, Locale locale) {
+		CompiledMessage message = getCompiledMessages(locale).get(code);
+		return message != null ? message.text : null;
+	}
+
+	@Override
+	protected MessageFormat resolveCode(String code, Locale locale) {
+		CompiledMessage message = getCompiledMessages(locale).get(code);
+		return message != null ? message.format : null;
+	}
+
+	protected Map<String, CompiledMessage> getCompiledMessages(Locale locale) {
+		return compiledMessages.computeIfAbsent(locale, this::compile);
+	}
+
+	protected Map<String, CompiledMessage> compile(Locale locale) {
+		Map<String, CompiledMessage> messages = new HashMap<>();
+		defaultMessages.stringPropertyNames()
+			.forEach(code -> messages.put(code, new CompiledMessage(defaultMessages.getProperty(code), locale)));
+
+		ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+		for (String basename : basenames) {
+			try {
+				ResourceBundle bundle = ResourceBundle.getBundle(basename, locale, classLoader);
+				for (Enumeration<String> keys = bundle.getKeys(); keys.hasMoreElements();) {
+					String code = keys.nextElement();
+					messages.put(code, new CompiledMessage(bundle.getString(code), locale));
+				}
+			} catch (MissingResourceException e) {
+				logger.warn("Fichier de messages introuvable : " + basename);
+			}
+		}
+		return Collections.unmodifiableMap(messages);
+	}
+
+	private static boolean isCacheable(Object[] args) {
+		if (args == null) {
+			return true;
+		}
+		for (Object arg : args) {
+			if (arg != null && !isImmutableValue(arg)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isImmutableValue(Object arg) {
+		return arg instanceof String || arg instanceof Boolean || arg instanceof Character || arg instanceof Enum
+				|| arg instanceof Number && arg.getClass().getName().startsWith("java.lang.");
+	}
+
+	static final class CompiledMessage {
+
+		final String text;
+		final MessageFormat format;
+
+		CompiledMessage(String text, Locale locale) {
+			this.text = text;
+			MessageFormat messageFormat;
+			try {
+				messageFormat = new MessageFormat(text, locale);
+			} catch (IllegalArgumentException e) {
+				messageFormat = new MessageFormat(text.replace("'", "''").replace("{", "'{'"), locale);
+			}
+			this.format = messageFormat;
+		}
+	}
+
+	static final class MessageKey {
+
+		private final String code;
+		private final Locale locale;
+		private final Object[] args;
+		private final int hashCode;
+
+		MessageKey(String code, Locale locale, Object[] args) {
+			this.code = code;
+			this.locale = locale;
+			this.args = args;
+			int hash = (31 * code.hashCode() + locale.hashCode()) * 31 + Arrays.hashCode(args);
+			this.hashCode = hash ^ (hash >>> 16);
+		}
+
+		/**
+		 * Copie stockée dans le cache, indépendante du tableau d'arguments de l'appelant
+		 */
+		MessageKey copy() {
+			return new MessageKey(code, locale, args != null ? args.clone() : null);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof MessageKey)) {
+				return false;
+			}
+			MessageKey otherKey = (MessageKey) other;
+			return hashCode == otherKey.hashCode && code.equals(otherKey.code) && locale.equals(otherKey.locale)
+					&& Arrays.equals(args, otherKey.args);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+}
@@ -1,22 +1,37 @@
 package net.jmb.tuto.spring.databinding.services;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 import org.springframework.beans.MutablePropertyValues;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.MessageSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.stereotype.Service;
+import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.DataBinder;
+import org.springframework.validation.ValidationUtils;
 import org.springframework.validation.Validator;
 
 import net.jmb.tuto.spring.databinding.beans.Person;
+import net.jmb.tuto.spring.databinding.binding.BeanBindPlan;
+import net.jmb.tuto.spring.databinding.binding.BindPlanCache;
+import net.jmb.tuto.spring.databinding.errors.ValidationErrorSink;
+import net.jmb.tuto.spring.databinding.validators.ValidationOptions;
 
 @Service
 public class PersonService {
@@ -40,7 +55,20 @@ public class PersonService {
 	ConversionService conversionService;	
 	
 	@Autowired
-	MessageSource messageSource;
+	ValidationErrorSink errorSink;
+
+	/**
+	 * Plans de binding pré-calculés par classe cible et ensemble de propriétés, utilisés pour le binding en masse
+	 */
+	private volatile BindPlanCache bindPlanCache;
+
+	/**
+	 * Exécuteur de la validation par lots : <code>ForkJoinPool.commonPool()</code> par défaut,
+	 * remplaçable par un bean nommé "validationExecutor" (pool dédié, threads virtuels, ...)
+	 */
+	private Executor validationExecutor = ForkJoinPool.commonPool();
+
+	private int validationChunkSize = 1024;
 
 	/**
 	 * <code>DataBinder</code> est utilisé en conjonction avec des <code>PropertyEditor</code>'s
@@ -62,23 +90,167 @@ public class PersonService {
 	}
 
 	public BindingResult validatePerson(Person person) {
+		return validatePerson(person, ValidationOptions.FULL);
+	}
+
+	/**
+	 * Validation selon les options données, ex :
+	 * <ul>
+	 * <li><code>ValidationOptions.FAIL_FAST</code> : arrêt à la première erreur
+	 * <li><code>ValidationOptions.only("adress.postalCode")</code> : seules les propriétés modifiées sont validées
+	 * </ul>
+	 */
+	public BindingResult validatePerson(Person person, ValidationOptions options) {
 		DataBinder dataBinder = new DataBinder(person);
 		dataBinder.addValidators(personValidator);
-		dataBinder.validate();
+		dataBinder.validate(options);
 		BindingResult bindingResult = dataBinder.getBindingResult();
 
-		bindingResult.getFieldErrors().forEach(error -> {
-			List<Object> params = new ArrayList<Object>(Collections.singletonList(error.getField()));
-			if (error.getArguments() != null) {
-				params.addAll(Arrays.asList(error.getArguments()));
-			}
-			System.out.println(messageSource.getMessage(error.getCode(), params.toArray(), Locale.getDefault()));
-		});
+		// Les messages ne sont résolus qu'au moment où l'erreur est effectivement restituée par le sink
+		bindingResult.getFieldErrors().forEach(errorSink::publish);
 		return bindingResult;
 	}
 
+	/**
+	 * Pré-contrôle rapide : validation arrêtée à la première erreur, sans publication des erreurs
+	 */
+	public boolean isValid(Person person) {
+		return isValid(person, ValidationOptions.FAIL_FAST);
+	}
+
+	/**
+	 * Validation selon les options données (ex: <code>ValidationOptions.only("adress.postalCode").withFailFast()</code>),
+	 * sans publication des erreurs
+	 */
+	public boolean isValid(Person person, ValidationOptions options) {
+		BindingResult bindingResult = new BeanPropertyBindingResult(person, DataBinder.DEFAULT_OBJECT_NAME);
+		ValidationUtils.invokeValidator(personValidator, person, bindingResult, options);
+		return !bindingResult.hasErrors();
+	}
+
+	/**
+	 * Validation par lots : les objets sont découpés en paquets validés en parallèle sur le <code>validationExecutor</code>,
+	 * sans écriture console. Le nombre de paquets en cours est borné afin de pouvoir consommer un flux de grande taille.
+	 * 
+	 * @param keepResults conserver le <code>BindingResult</code> de chaque objet invalide dans le rapport
+	 */
+	public ValidationReport validatePersons(Stream<? extends Person> persons, boolean keepResults) {
+		int maxPendingChunks = 2 * Runtime.getRuntime().availableProcessors();
+		Deque<CompletableFuture<ValidationReport>> pendingChunks = new ArrayDeque<>();
+		ValidationReport report = new ValidationReport(keepResults);
+
+		Iterator<? extends Person> iterator = persons.iterator();
+		long firstIndex = 0;
+		while (iterator.hasNext()) {
+			List<Person> chunk = new ArrayList<>(validationChunkSize);
+			while (chunk.size() < validationChunkSize && iterator.hasNext()) {
+				chunk.add(iterator.next());
+			}
+			pendingChunks.add(submitChunk(chunk, firstIndex, keepResults));
+			firstIndex += chunk.size();
+			if (pendingChunks.size() >= maxPendingChunks) {
+				report.merge(join(pendingChunks.poll()));
+			}
+		}
+		while (!pendingChunks.isEmpty()) {
+			report.merge(join(pendingChunks.poll()));
+		}
+		return report;
+	}
+
+	public ValidationReport validatePersons(Collection<? extends Person> persons, boolean keepResults) {
+		return validatePersons(persons.stream(), keepResults);
+	}
+
+	protected CompletableFuture<ValidationReport> submitChunk(List<Person> chunk, long firstIndex, boolean keepResults) {
+		return CompletableFuture.supplyAsync(() -> validateChunk(chunk, firstIndex, keepResults), validationExecutor);
+	}
+
+	protected ValidationReport validateChunk(List<Person> chunk, long firstIndex, boolean keepResults) {
+		ValidationReport report = new ValidationReport(keepResults);
+		for (int i = 0; i < chunk.size(); i++) {
+			Person person = chunk.get(i);
+			BindingResult bindingResult = new BeanPropertyBindingResult(person, DataBinder.DEFAULT_OBJECT_NAME);
+			ValidationUtils.invokeValidator(personValidator, person, bindingResult);
+			report.add(firstIndex + i, bindingResult);
+		}
+		return report;
+	}
+
+	private static ValidationReport join(CompletableFuture<ValidationReport> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	@Autowired(required = false)
+	public void setValidationExecutor(@Qualifier("validationExecutor") Executor validationExecutor) {
+		this.validationExecutor = validationExecutor;
+	}
+
+	public void setValidationChunkSize(int validationChunkSize) {
+		this.validationChunkSize = validationChunkSize;
+	}
+
 	public Person getPersonFromProperties(Map<String, Object> propertyValues) {
 		return getBeanFromProperties(propertyValues, Person.class);
 	}
 
+	/**
+	 * Binding en masse : le constructeur et les chaînes d'accesseurs de la classe cible sont résolus une seule fois
+	 * par ensemble de propriétés dans un <code>BeanBindPlan</code> réutilisé pour chaque élément du flux.
+	 * <p>
+	 * Le flux retourné est paresseux et peut être parallélisé, les plans étant thread-safe.
+	 */
+	public <T> Stream<T> getBeansFromProperties(Stream<Map<String, Object>> properties, Class<T> clss) {
+		BindPlanCache plans = getBindPlanCache();
+		return properties.map(values -> plans.getPlan(clss, values.keySet()).bind(values));
+	}
+
+	public <T> Iterator<T> getBeansFromProperties(Iterator<Map<String, Object>> properties, Class<T> clss) {
+		BindPlanCache plans = getBindPlanCache();
+		return new Iterator<T>() {
+			@Override
+			public boolean hasNext() {
+				return properties.hasNext();
+			}
+			@Override
+			public T next() {
+				Map<String, Object> values = properties.next();
+				return plans.getPlan(clss, values.keySet()).bind(values);
+			}
+		};
+	}
+
+	public Stream<Person> getPersonsFromProperties(Stream<Map<String, Object>> propertyValues) {
+		return getBeansFromProperties(propertyValues, Person.class);
+	}
+
+	public <T> BeanBindPlan<T> getBindPlan(Class<T> clss, Set<String> propertyPaths) {
+		return getBindPlanCache().getPlan(clss, propertyPaths);
+	}
+
+	protected BindPlanCache getBindPlanCache() {
+		BindPlanCache plans = bindPlanCache;
+		if (plans == null) {
+			plans = new BindPlanCache(conversionService);
+			bindPlanCache = plans;
+		}
+		return plans;
+	}
+
+	/**
+	 * Les plans référencent le <code>ConversionService</code> et les classes du contexte :
+	 * ils sont invalidés à chaque rafraîchissement
+	 */
+	@EventListener(ContextRefreshedEvent.class)
+	public void clearBindPlans() {
+		bindPlanCache = null;
+	}
+
 }
@@ -0,0 +1,92 @@
+package net.jmb.tuto.spring.databinding.services;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+
+/**
+ * Rapport agrégé de la validation d'un lot d'objets :
+ * <ul>
+ * <li>nombre d'objets validés et d'objets invalides
+ * <li>nombre d'erreurs par code d'erreur et par champ
+ * <li>sur demande, le <code>BindingResult</code> de chaque objet invalide, indexé par son rang dans le lot
+ * </ul>
+ */
+public class ValidationReport {
+
+	private final boolean keepResults;
+	private long validatedCount;
+	private long invalidCount;
+	private final Map<String, Long> errorCountsByCode = new HashMap<>();
+	private final Map<String, Long> errorCountsByField = new HashMap<>();
+	private final Map<Long, BindingResult> invalidResults = new TreeMap<>();
+
+	ValidationReport(boolean keepResults) {
+		this.keepResults = keepResults;
+	}
+
+	void add(long index, BindingResult bindingResult) {
+		validatedCount++;
+		if (!bindingResult.hasErrors()) {
+			return;
+		}
+		invalidCount++;
+		for (ObjectError error : bindingResult.getAllErrors()) {
+			errorCountsByCode.merge(error.getCode(), 1L, Long::sum);
+			if (error instanceof FieldError) {
+				errorCountsByField.merge(((FieldError) error).getField(), 1L, Long::sum);
+			}
+		}
+		if (keepResults) {
+			invalidResults.put(index, bindingResult);
+		}
+	}
+
+	void merge(ValidationReport other) {
+		validatedCount += other.validatedCount;
+		invalidCount += other.invalidCount;
+		other.errorCountsByCode.forEach((code, count) -> errorCountsByCode.merge(code, count, Long::sum));
+		other.errorCountsByField.forEach((field, count) -> errorCountsByField.merge(field, count, Long::sum));
+		invalidResults.putAll(other.invalidResults);
+	}
+
+	public long getValidatedCount() {
+		return validatedCount;
+	}
+
+	public long getInvalidCount() {
+		return invalidCount;
+	}
+
+	public long getValidCount() {
+		return validatedCount - invalidCount;
+	}
+
+	public Map<String, Long> getErrorCountsByCode() {
+		return Collections.unmodifiableMap(errorCountsByCode);
+	}
+
+	public Map<String, Long> getErrorCountsByField() {
+		return Collections.unmodifiableMap(errorCountsByField);
+	}
+
+	/**
+	 * <code>BindingResult</code>'s des objets invalides par rang dans le lot (vide si non demandés)
+	 */
+	public Map<Long, BindingResult> getInvalidResults() {
+		return Collections.unmodifiableMap(invalidResults);
+	}
+
+	@Override
+	public String toString() {
+		return "ValidationReport [validated=" + validatedCount + ", invalid=" + invalidCount
+				+ ", errorsByCode=" + new TreeMap<>(errorCountsByCode)
+				+ ", errorsByField=" + new TreeMap<>(errorCountsByField) + "]";
+	}
+
+}
@@ -2,14 +2,20 @@ package net.jmb.tuto.spring.databinding.validators;
 
 import org.springframework.stereotype.Component;
 import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
 import org.springframework.validation.ValidationUtils;
-import org.springframework.validation.Validator;
 
 import net.jmb.tuto.spring.databinding.ApplicationMessages;
 import net.jmb.tuto.spring.databinding.beans.Adress;
 
+/**
+ * Accepte des <code>ValidationOptions</code> en "validation hint" : arrêt à la première erreur
+ * et/ou validation restreinte à certaines propriétés
+ */
 @Component
-public class AdressValidator implements Validator, ApplicationMessages {
+public class AdressValidator implements SmartValidator, ApplicationMessages {
+	
+	private static final String[] REQUIRED_FIELDS = { "street", "number", "postalCode", "city" };
 	
 	@Override
 	public boolean supports(Class<?> clazz) {
@@ -18,16 +24,28 @@ public class AdressValidator implements Validator, ApplicationMessages {
 
 	@Override
 	public void validate(Object target, Errors errors) {
-		ValidationUtils.rejectIfEmptyOrWhitespace(errors, "street", FIELD_REQUIRED);
-        ValidationUtils.rejectIfEmptyOrWhitespace(errors, "number", FIELD_REQUIRED);
-        ValidationUtils.rejectIfEmptyOrWhitespace(errors, "postalCode", FIELD_REQUIRED);
-        ValidationUtils.rejectIfEmptyOrWhitespace(errors, "city", FIELD_REQUIRED);
+		validate(target, errors, ValidationOptions.FULL);
+	}
+
+	@Override
+	public void validate(Object target, Errors errors, Object... validationHints) {
+		
+		ValidationOptions options = ValidationOptions.from(validationHints);
+		int initialErrorCount = errors.getErrorCount();
+		
+		for (String field : REQUIRED_FIELDS) {
+			if (options.includes(field)) {
+				ValidationUtils.rejectIfEmptyOrWhitespace(errors, field, FIELD_REQUIRED);
+				if (options.shouldStop(initialErrorCount, errors.getErrorCount())) {
+					return;
+				}
+			}
+		}
         
         Adress adress = (Adress) target;
-        if (adress.getPostalCode() != null && !adress.getPostalCode().matches("[0-9]{5}")) {
+        if (options.includes("postalCode") && adress.getPostalCode() != null && !adress.getPostalCode().matches("[0-9]{5}")) {
         	errors.rejectValue("postalCode", NUMBER_FORMAT, new Integer[] {5}, null);
         }
-
 		
 	}
 
@@ -3,14 +3,19 @@ package net.jmb.tuto.spring.databinding.validators;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
 import org.springframework.validation.ValidationUtils;
 import org.springframework.validation.Validator;
 
 import net.jmb.tuto.spring.databinding.ApplicationMessages;
 import net.jmb.tuto.spring.databinding.beans.Person;
 
+/**
+ * Accepte des <code>ValidationOptions</code> en "validation hint" : arrêt à la première erreur
+ * et/ou validation restreinte à certaines propriétés
+ */
 @Component
-public class PersonValidator implements Validator, ApplicationMessages {
+public class PersonValidator implements SmartValidator, ApplicationMessages {
 	
 	@Autowired
 	Validator adressValidator;
@@ -22,22 +27,43 @@ public class PersonValidator implements Validator, ApplicationMessages {
 
 	@Override
 	public void validate(Object target, Errors errors) {
+		validate(target, errors, ValidationOptions.FULL);
+	}
+
+	@Override
+	public void validate(Object target, Errors errors, Object... validationHints) {
 		
-		ValidationUtils.rejectIfEmpty(errors, "name", NAME_EMPTY); 
+		ValidationOptions options = ValidationOptions.from(validationHints);
+		int initialErrorCount = errors.getErrorCount();
 		Person person = (Person) target;
-		if (person.getAge() != null && person.getAge() <= 0) {
-			errors.rejectValue("age", NEGATIVE_VALUE);
-		} else if (person.getAge() != null && person.getAge() > 110) {
-			errors.rejectValue("age", TOO_OLD);
+
+		if (options.includes("name")) {
+			ValidationUtils.rejectIfEmpty(errors, "name", NAME_EMPTY); 
+			if (options.shouldStop(initialErrorCount, errors.getErrorCount())) {
+				return;
+			}
 		}
 		
-		ValidationUtils.rejectIfEmpty(errors, "adress", FIELD_REQUIRED); 
+		if (options.includes("age")) {
+			if (person.getAge() != null && person.getAge() <= 0) {
+				errors.rejectValue("age", NEGATIVE_VALUE);
+			} else if (person.getAge() != null && person.getAge() > 110) {
+				errors.rejectValue("age", TOO_OLD);
+			}
+			if (options.shouldStop(initialErrorCount, errors.getErrorCount())) {
+				return;
+			}
+		}
 		
-		// Validation de l'adresse avec ajout d'un préfixe "adress." au champ en erreur
-		if (person.getAdress() != null) {
-            errors.pushNestedPath("adress");
-            ValidationUtils.invokeValidator(this.adressValidator, person.getAdress(), errors);
-            errors.popNestedPath();
-        } 
+		if (options.includes("adress")) {
+			ValidationUtils.rejectIfEmpty(errors, "adress", FIELD_REQUIRED); 
+			
+			// Validation de l'adresse avec ajout d'un préfixe "adress." au champ en erreur
+			if (person.getAdress() != null) {
+	            errors.pushNestedPath("adress");
+	            ValidationUtils.invokeValidator(this.adressValidator, person.getAdress(), errors, options.nested("adress"));
+	            errors.popNestedPath();
+	        } 
+		}
 	}
 }
@@ -0,0 +1,108 @@
+package net.jmb.tuto.spring.databinding.validators;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Options de validation transmises comme "validation hint" à un <code>SmartValidator</code> :
+ * <ul>
+ * <li><code>failFast</code> : arrêt à la première erreur
+ * <li><code>propertyPaths</code> : restriction de la validation aux chemins donnés (ex: "adress.postalCode"),
+ * un chemin incluant toutes ses sous-propriétés ; <code>null</code> pour tout valider
+ * </ul>
+ */
+public final class ValidationOptions {
+
+	public static final ValidationOptions FULL = new ValidationOptions(false, null);
+	public static final ValidationOptions FAIL_FAST = new ValidationOptions(true, null);
+
+	private final boolean failFast;
+	private final Set<String> propertyPaths;
+
+	private ValidationOptions(boolean failFast, Set<String> propertyPaths) {
+		this.failFast = failFast;
+		this.propertyPaths = propertyPaths;
+	}
+
+	public static ValidationOptions only(String... propertyPaths) {
+		return only(Arrays.asList(propertyPaths));
+	}
+
+	public static ValidationOptions only(Collection<String> propertyPaths) {
+		return new ValidationOptions(false, Collections.unmodifiableSet(new HashSet<>(propertyPaths)));
+	}
+
+	/**
+	 * Mêmes options avec arrêt à la première erreur
+	 */
+	public ValidationOptions withFailFast() {
+		return failFast ? this : new ValidationOptions(true, propertyPaths);
+	}
+
+	/**
+	 * Retrouve les options parmi les "validation hints" reçus, <code>FULL</code> à défaut
+	 */
+	public static ValidationOptions from(Object... validationHints) {
+		if (validationHints != null) {
+			for (Object hint : validationHints) {
+				if (hint instanceof ValidationOptions) {
+					return (ValidationOptions) hint;
+				}
+			}
+		}
+		return FULL;
+	}
+
+	public boolean isFailFast() {
+		return failFast;
+	}
+
+	/**
+	 * La propriété (ou l'une de ses sous-propriétés) doit-elle être validée ?
+	 */
+	public boolean includes(String property) {
+		if (propertyPaths == null || propertyPaths.contains(property)) {
+			return true;
+		}
+		String prefix = property + ".";
+		for (String propertyPath : propertyPaths) {
+			if (propertyPath.startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Options à appliquer à l'objet porté par la propriété donnée, chemins relatifs à cet objet
+	 */
+	public ValidationOptions nested(String property) {
+		if (propertyPaths == null || propertyPaths.contains(property)) {
+			return failFast ? FAIL_FAST : FULL;
+		}
+		String prefix = property + ".";
+		Set<String> nestedPaths = new HashSet<>();
+		for (String propertyPath : propertyPaths) {
+			if (propertyPath.startsWith(prefix)) {
+				nestedPaths.add(propertyPath.substring(prefix.length()));
+			}
+		}
+		return new ValidationOptions(failFast, Collections.unmodifiableSet(nestedPaths));
+	}
+
+	/**
+	 * Vrai si la validation doit s'arrêter : mode fail-fast et nouvelle erreur depuis <code>initialErrorCount</code>
+	 */
+	public boolean shouldStop(int initialErrorCount, int errorCount) {
+		return failFast && errorCount > initialErrorCount;
+	}
+
+	@Override
+	public String toString() {
+		return "ValidationOptions [failFast=" + failFast + ", propertyPaths=" + (propertyPaths != null ? propertyPaths : "*") + "]";
+	}
+
+}
@@ -0,0 +1,326 @@
+package net.jmb.tuto.spring.databinding.validators.compiled;
+
+import java.beans.PropertyDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.chrono.ChronoLocalDate;
+import java.time.chrono.ChronoLocalDateTime;
+import java.time.chrono.ChronoZonedDateTime;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+
+import javax.validation.Constraint;
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Past;
+import javax.validation.constraints.Size;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+import net.jmb.tuto.spring.databinding.validators.constraints.Insee;
+import net.jmb.tuto.spring.databinding.validators.constraints.InseeConstraintValidator;
+
+/**
+ * <code>Validator</code> Spring généré au démarrage à partir des annotations Bean Validation d'une classe
+ * (<code>@NotNull</code>, <code>@NotBlank</code>, <code>@Size</code>, <code>@Min</code>, <code>@Max</code>, <code>@Past</code>,
+ * <code>@Pattern</code>, <code>@Insee</code> et <code>@Valid</code> sur les champs).
+ * <p>
+ * L'introspection n'a lieu qu'à la compilation : chaque contrainte est ensuite évaluée par un getter généré
+ * (voir {@link Getters}) et un prédicat spécialisé selon le type du champ, sans réflexion sur le chemin critique.
+ * Seule l'alimentation de <code>Errors</code> en cas de violation relit la valeur rejetée via le <code>BindingResult</code>.
+ * <p>
+ * Les violations produites sont celles de <code>LocalValidatorFactoryBean</code> : même champ, code égal au nom
+ * de la contrainte et message par défaut interpolé de la même façon (messages Hibernate Validator et ValidationMessages.properties).
+ * Seul le groupe par défaut est pris en charge ; une contrainte non supportée fait échouer la compilation.
+ */
+public class CompiledBeanValidator implements Validator {
+
+	private static final Map<Class<?>, CompiledBeanValidator> VALIDATORS = new ConcurrentHashMap<>();
+
+	private final Class<?> beanClass;
+	private PropertyValidation[] validations;
+
+	private CompiledBeanValidator(Class<?> beanClass) {
+		this.beanClass = beanClass;
+	}
+
+	public static CompiledBeanValidator forClass(Class<?> beanClass) {
+		CompiledBeanValidator validator = VALIDATORS.get(beanClass);
+		if (validator == null) {
+			synchronized (VALIDATORS) {
+				validator = VALIDATORS.get(beanClass);
+				if (validator == null) {
+					Map<Class<?>, CompiledBeanValidator> compiled = new HashMap<>();
+					validator = compile(beanClass, compiled);
+					VALIDATORS.putAll(compiled);
+				}
+			}
+		}
+		return validator;
+	}
+
+	@Override
+	public boolean supports(Class<?> clazz) {
+		return beanClass.isAssignableFrom(clazz);
+	}
+
+	@Override
+	public void validate(Object target, Errors errors) {
+		for (PropertyValidation validation : validations) {
+			validation.validate(target, errors);
+		}
+	}
+
+	private static CompiledBeanValidator compile(Class<?> beanClass, Map<Class<?>, CompiledBeanValidator> compiled) {
+		CompiledBeanValidator validator = VALIDATORS.get(beanClass);
+		if (validator == null) {
+			validator = compiled.get(beanClass);
+		}
+		if (validator != null) {
+			return validator;
+		}
+		validator = new CompiledBeanValidator(beanClass);
+		compiled.put(beanClass, validator);
+
+		List<PropertyValidation> validations = new ArrayList<>();
+		for (Class<?> clazz = beanClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+			for (Field field : clazz.getDeclaredFields()) {
+				if (!Modifier.isStatic(field.getModifiers())) {
+					compileField(beanClass, field, compiled, validations);
+				}
+			}
+		}
+		validator.validations = validations.toArray(new PropertyValidation[0]);
+		return validator;
+	}
+
+	private static void compileField(Class<?> beanClass, Field field, Map<Class<?>, CompiledBeanValidator> compiled,
+			List<PropertyValidation> validations) {
+		Function<Object, Object> getter = null;
+		for (Annotation annotation : field.getAnnotations()) {
+			boolean isConstraint = annotation.annotationType().isAnnotationPresent(Constraint.class);
+			if (!isConstraint && !(annotation instanceof Valid)) {
+				continue;
+			}
+			if (getter == null) {
+				getter = Getters.of(getReadMethod(beanClass, field));
+			}
+			if (annotation instanceof Valid) {
+				validations.add(new NestedValidation(field.getName(), getter, compile(field.getType(), compiled)));
+			} else if (isDefaultGroup(annotation)) {
+				Map<String, Object> attributes = AnnotationUtils.getAnnotationAttributes(annotation);
+				validations.add(new PropertyConstraint(field.getName(), getter,
+						checkFor(annotation, field),
+						annotation.annotationType().getSimpleName(),
+						arguments(field.getName(), attributes),
+						MessageTemplates.interpolate((String) attributes.get("message"), attributes)));
+			}
+		}
+	}
+
+	private static Method getReadMethod(Class<?> beanClass, Field field) {
+		PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(beanClass, field.getName());
+		if (descriptor == null || descriptor.getReadMethod() == null) {
+			throw new IllegalStateException("Pas de getter pour le champ contraint " + field);
+		}
+		return descriptor.getReadMethod();
+	}
+
+	private static boolean isDefaultGroup(Annotation annotation) {
+		Object groups = AnnotationUtils.getValue(annotation, "groups");
+		return !(groups instanceof Class<?>[]) || ((Class<?>[]) groups).length == 0;
+	}
+
+	/**
+	 * Arguments identiques à ceux de <code>SpringValidatorAdapter</code> : le champ puis les attributs
+	 * de la contrainte par ordre alphabétique
+	 */
+	private static Object[] arguments(String fieldName, Map<String, Object> attributes) {
+		List<Object> arguments = new ArrayList<>();
+		arguments.add(new DefaultMessageSourceResolvable(new String[] { fieldName }, fieldName));
+		new TreeMap<>(attributes).forEach((name, value) -> {
+			if (!"message".equals(name) && !"groups".equals(name) && !"payload".equals(name)) {
+				arguments.add(value);
+			}
+		});
+		return arguments.toArray();
+	}
+
+	/**
+	 * Prédicat spécialisé selon la contrainte et le type déclaré du champ
+	 */
+	private static Predicate<Object> checkFor(Annotation annotation, Field field) {
+		Class<?> type = field.getType();
+		if (annotation instanceof NotNull) {
+			return Objects::nonNull;
+		}
+		if (annotation instanceof NotBlank && CharSequence.class.isAssignableFrom(type)) {
+			return value -> StringUtils.hasText((CharSequence) value);
+		}
+		if (annotation instanceof Size) {
+			int min = ((Size) annotation).min();
+			int max = ((Size) annotation).max();
+			ToIntFunction<Object> size = sizeFunction(type, field);
+			return value -> {
+				if (value == null) {
+					return true;
+				}
+				int length = size.applyAsInt(value);
+				return length >= min && length <= max;
+			};
+		}
+		if (annotation instanceof Min) {
+			Predicate<Number> check = numberCheck(((Min) annotation).value(), true, type, field);
+			return value -> value == null || check.test((Number) value);
+		}
+		if (annotation instanceof Max) {
+			Predicate<Number> check = numberCheck(((Max) annotation).value(), false, type, field);
+			return value -> value == null || check.test((Number) value);
+		}
+		if (annotation instanceof Past) {
+			Predicate<Object> check = pastCheck(type, field);
+			return value -> value == null || check.test(value);
+		}
+		if (annotation instanceof javax.validation.constraints.Pattern && CharSequence.class.isAssignableFrom(type)) {
+			javax.validation.constraints.Pattern constraint = (javax.validation.constraints.Pattern) annotation;
+			int flags = 0;
+			for (javax.validation.constraints.Pattern.Flag flag : constraint.flags()) {
+				flags |= flag.getValue();
+			}
+			Pattern pattern = Pattern.compile(constraint.regexp(), flags);
+			return value -> value == null || pattern.matcher((CharSequence) value).matches();
+		}
+		if (annotation instanceof Insee && CharSequence.class.isAssignableFrom(type)) {
+			boolean withKey = ((Insee) annotation).withKey();
+			return value -> value == null || InseeConstraintValidator.isValidInsee((CharSequence) value, withKey);
+		}
+		throw unsupported(annotation, field);
+	}
+
+	private static ToIntFunction<Object> sizeFunction(Class<?> type, Field field) {
+		if (CharSequence.class.isAssignableFrom(type)) {
+			return value -> ((CharSequence) value).length();
+		}
+		if (Collection.class.isAssignableFrom(type)) {
+			return value -> ((Collection<?>) value).size();
+		}
+		if (Map.class.isAssignableFrom(type)) {
+			return value -> ((Map<?, ?>) value).size();
+		}
+		if (Object[].class.isAssignableFrom(type)) {
+			return value -> ((Object[]) value).length;
+		}
+		throw new IllegalStateException("@Size non supportée sur " + field);
+	}
+
+	private static Predicate<Number> numberCheck(long bound, boolean isMin, Class<?> type, Field field) {
+		if (type == Integer.class || type == Long.class || type == Short.class || type == Byte.class
+				|| type == int.class || type == long.class || type == short.class || type == byte.class) {
+			return isMin ? value -> value.longValue() >= bound : value -> value.longValue() <= bound;
+		}
+		if (type == Double.class || type == Float.class || type == double.class || type == float.class) {
+			return isMin ? value -> value.doubleValue() >= bound : value -> value.doubleValue() <= bound;
+		}
+		if (type == BigDecimal.class) {
+			BigDecimal decimalBound = BigDecimal.valueOf(bound);
+			return isMin ? value -> ((BigDecimal) value).compareTo(decimalBound) >= 0
+					: value -> ((BigDecimal) value).compareTo(decimalBound) <= 0;
+		}
+		if (type == BigInteger.class) {
+			BigInteger integerBound = BigInteger.valueOf(bound);
+			return isMin ? value -> ((BigInteger) value).compareTo(integerBound) >= 0
+					: value -> ((BigInteger) value).compareTo(integerBound) <= 0;
+		}
+		throw new IllegalStateException((isMin ? "@Min" : "@Max") + " non supportée sur " + field);
+	}
+
+	private static Predicate<Object> pastCheck(Class<?> type, Field field) {
+		if (Date.class.isAssignableFrom(type)) {
+			return value -> ((Date) value).getTime() < System.currentTimeMillis();
+		}
+		if (Calendar.class.isAssignableFrom(type)) {
+			return value -> ((Calendar) value).getTimeInMillis() < System.currentTimeMillis();
+		}
+		if (type == Instant.class) {
+			return value -> ((Instant) value).isBefore(Instant.now());
+		}
+		if (type == OffsetDateTime.class) {
+			return value -> ((OffsetDateTime) value).toInstant().isBefore(Instant.now());
+		}
+		if (ChronoLocalDate.class.isAssignableFrom(type)) {
+			return value -> ((ChronoLocalDate) value).isBefore(LocalDate.now());
+		}
+		if (ChronoLocalDateTime.class.isAssignableFrom(type)) {
+			return value -> ((ChronoLocalDateTime<?>) value).isBefore(LocalDateTime.now());
+		}
+		if (ChronoZonedDateTime.class.isAssignableFrom(type)) {
+			return value -> ((ChronoZonedDateTime<?>) value).toInstant().isBefore(Instant.now());
+		}
+		throw new IllegalStateException("@Past non supportée sur " + field);
+	}
+
+	private static IllegalStateException unsupported(Annotation annotation, Field field) {
+		return new IllegalStateException(
+				"Contrainte non supportée : @" + annotation.annotationType().getSimpleName() + " sur " + field);
+	}
+
+	interface PropertyValidation {
+
+		void validate(Object bean, Errors errors);
+	}
+
+	/**
+	 * <code>@Valid</code> : validation de l'objet imbriqué avec le préfixe "propriété." sur les champs en erreur
+	 */
+	static final class NestedValidation implements PropertyValidation {
+
+		private final String propertyName;
+		private final Function<Object, Object> getter;
+		private final CompiledBeanValidator validator;
+
+		NestedValidation(String propertyName, Function<Object, Object> getter, CompiledBeanValidator validator) {
+			this.propertyName = propertyName;
+			this.getter = getter;
+			this.validator = validator;
+		}
+
+		@Override
+		public void validate(Object bean, Errors errors) {
+			Object value = getter.apply(bean);
+			if (value != null) {
+				errors.pushNestedPath(propertyName);
+				validator.validate(value, errors);
+				errors.popNestedPath();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,40 @@
+package net.jmb.tuto.spring.databinding.validators.compiled;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.function.Function;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * Génération, au démarrage, de getters en appel direct : la classe implémentant <code>Function</code>
+ * est générée par <code>LambdaMetafactory</code> (comme pour une référence de méthode <code>Person::getName</code>),
+ * sans <code>Method.invoke</code> lors des appels.
+ */
+final class Getters {
+
+	private Getters() {
+	}
+
+	@SuppressWarnings("unchecked")
+	static Function<Object, Object> of(Method readMethod) {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle handle = lookup.unreflect(readMethod);
+			MethodType instantiatedType = handle.type()
+					.changeReturnType(ClassUtils.resolvePrimitiveIfNecessary(readMethod.getReturnType()));
+			CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply",
+					MethodType.methodType(Function.class),
+					MethodType.methodType(Object.class, Object.class),
+					handle, instantiatedType);
+			return (Function<Object, Object>) callSite.getTarget().invokeExact();
+		} catch (Throwable e) {
+			throw new IllegalStateException("Génération du getter impossible : " + readMethod, e);
+		}
+	}
+
+}
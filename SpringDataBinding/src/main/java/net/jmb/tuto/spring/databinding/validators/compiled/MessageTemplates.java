@@ -0,0 +1,62 @@
+package net.jmb.tuto.spring.databinding.validators.compiled;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Interpolation des messages de contraintes à la compilation, selon les règles de Hibernate Validator :
+ * <ul>
+ * <li>les <code>{clé}</code> sont recherchées dans ValidationMessages.properties puis dans les messages de Hibernate Validator
+ * <li>les <code>{attribut}</code> restants sont remplacés par la valeur de l'attribut de la contrainte
+ * </ul>
+ * Seule l'expression <code>${validatedValue}</code> est conservée, pour être remplacée lors d'une violation.
+ */
+final class MessageTemplates {
+
+	private static final Pattern PARAMETER = Pattern.compile("(?<!\\$)\\{([^{}]+)\\}");
+	private static final String[] BUNDLES = { "ValidationMessages", "org.hibernate.validator.ValidationMessages" };
+
+	private MessageTemplates() {
+	}
+
+	static String interpolate(String template, Map<String, Object> attributes) {
+		String message = replace(template, MessageTemplates::lookup);
+		return replace(message, key -> attributes.containsKey(key)
+				? ObjectUtils.nullSafeToString(attributes.get(key))
+				: null);
+	}
+
+	private static String replace(String template, Function<String, String> resolver) {
+		Matcher matcher = PARAMETER.matcher(template);
+		StringBuffer result = new StringBuffer();
+		while (matcher.find()) {
+			String value = resolver.apply(matcher.group(1));
+			matcher.appendReplacement(result, Matcher.quoteReplacement(value != null ? value : matcher.group()));
+		}
+		matcher.appendTail(result);
+		return result.toString();
+	}
+
+	private static String lookup(String key) {
+		for (String basename : BUNDLES) {
+			try {
+				ResourceBundle bundle = ResourceBundle.getBundle(basename, Locale.getDefault(),
+						MessageTemplates.class.getClassLoader());
+				if (bundle.containsKey(key)) {
+					return bundle.getString(key);
+				}
+			} catch (MissingResourceException e) {
+				// Fichier de messages absent : clé recherchée dans le suivant
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,44 @@
+package net.jmb.tuto.spring.databinding.validators.compiled;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.springframework.validation.Errors;
+
+/**
+ * Contrainte compilée portant sur une propriété : getter généré, prédicat de validation,
+ * code d'erreur, arguments et message pré-interpolé
+ */
+final class PropertyConstraint implements CompiledBeanValidator.PropertyValidation {
+
+	static final String VALIDATED_VALUE = "${validatedValue}";
+
+	private final String propertyName;
+	private final Function<Object, Object> getter;
+	private final Predicate<Object> check;
+	private final String code;
+	private final Object[] arguments;
+	private final String message;
+
+	PropertyConstraint(String propertyName, Function<Object, Object> getter, Predicate<Object> check,
+			String code, Object[] arguments, String message) {
+		this.propertyName = propertyName;
+		this.getter = getter;
+		this.check = check;
+		this.code = code;
+		this.arguments = arguments;
+		this.message = message;
+	}
+
+	@Override
+	public void validate(Object bean, Errors errors) {
+		Object value = getter.apply(bean);
+		if (!check.test(value)) {
+			String defaultMessage = message.contains(VALIDATED_VALUE)
+					? message.replace(VALIDATED_VALUE, String.valueOf(value))
+					: message;
+			errors.rejectValue(propertyName, code, arguments, defaultMessage);
+		}
+	}
+
+}
@@ -3,20 +3,57 @@ package net.jmb.tuto.spring.databinding.validators.constraints;
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 
+/**
+ * Validation d'un n° Insee (NIR) en une seule passe sur les caractères, sans expression régulière :
+ * <ul>
+ * <li>sexe (1 ou 2), année (2 chiffres), mois (01 à 12), département (01 à 99), commune et n° d'ordre (6 chiffres)
+ * <li>clé de contrôle sur 2 chiffres, obligatoire si <code>withKey = true</code> et alors vérifiée :
+ * elle doit valoir 97 - (n° sur 13 chiffres modulo 97)
+ * <li>sans <code>withKey</code>, 0 à 2 chiffres supplémentaires sont tolérés sans contrôle
+ * </ul>
+ */
 public class InseeConstraintValidator implements ConstraintValidator<Insee, String> {
-	
+
+	static final int NIR_LENGTH = 13;
+	static final int KEY_LENGTH = 2;
+
 	boolean withKey;
-	
+
 	@Override
 	public void initialize(Insee annotation) {
 		this.withKey = annotation.withKey();
 	}
 
 	@Override
-	public boolean isValid(String value, ConstraintValidatorContext context) {		
-		if (withKey) {
-			return value == null || value.matches("[12][0-9]{2}(0[1-9]|1[0-2])(0[1-9]|[1-9][0-9])[0-9]{8}");
+	public boolean isValid(String value, ConstraintValidatorContext context) {
+		return value == null || isValidInsee(value, withKey);
+	}
+
+	public static boolean isValidInsee(CharSequence value, boolean withKey) {
+		int length = value.length();
+		if (withKey ? length != NIR_LENGTH + KEY_LENGTH : length < NIR_LENGTH || length > NIR_LENGTH + KEY_LENGTH) {
+			return false;
+		}
+		long nir = 0;
+		int key = 0;
+		for (int i = 0; i < length; i++) {
+			int digit = value.charAt(i) - '0';
+			if (digit < 0 || digit > 9) {
+				return false;
+			}
+			if (i < NIR_LENGTH) {
+				nir = nir * 10 + digit;
+			} else {
+				key = key * 10 + digit;
+			}
+		}
+		// nir = S AA MM DD CCC OOO
+		int sex = (int) (nir / 1_000_000_000_000L);
+		int month = (int) (nir / 100_000_000L % 100);
+		int department = (int) (nir / 1_000_000L % 100);
+		if (sex < 1 || sex > 2 || month < 1 || month > 12 || department < 1) {
+			return false;
 		}
-		return value == null || value.matches("[12][0-9]{2}(0[1-9]|1[0-2])(0[1-9]|[1-9][0-9])[0-9]{6}[0-9]{0,2}");
+		return !withKey || key == 97 - nir % 97;
 	}
 }
@@ -0,0 +1,99 @@
+package net.jmb.tuto.spring.ioc.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import net.jmb.tuto.spring.ioc.JavaConfigApp;
+import net.jmb.tuto.spring.ioc.factories.ComponentHandle;
+import net.jmb.tuto.spring.ioc.factories.IComponentFactory;
+import net.jmb.tuto.spring.ioc.javaconfig.beans.Adress;
+import net.jmb.tuto.spring.ioc.services.IPersonService;
+
+/**
+ * Recherche de composants dans le contexte de <code>JavaConfigApp</code>, par <code>getBean</code>
+ * et par <code>SpringComponentFactory</code> (cache des singletons, handles) :
+ * <ul>
+ * <li>singleton par type (<code>IPersonService</code>) et par nom (<code>personService</code>)
+ * <li>prototype par nom (<code>scopedTarget.adress</code>, cible du proxy de <code>adress</code>)
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ComponentFactoryBenchmark {
+
+	static final String PROTOTYPE = "scopedTarget.adress";
+
+	AnnotationConfigApplicationContext context;
+	IComponentFactory factory;
+	ComponentHandle<IPersonService> serviceHandle;
+	ComponentHandle<Adress> adressHandle;
+
+	@Setup
+	public void setUp() {
+		((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+		context = new AnnotationConfigApplicationContext(JavaConfigApp.class);
+		factory = context.getBean(IComponentFactory.class);
+		serviceHandle = factory.getHandle(IPersonService.class);
+		adressHandle = factory.getHandle(PROTOTYPE, Adress.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Object getBeanByType() {
+		return context.getBean(IPersonService.class);
+	}
+
+	@Benchmark
+	public Object factoryByType() {
+		return factory.getComponent(IPersonService.class);
+	}
+
+	@Benchmark
+	public Object handleByType() {
+		return serviceHandle.get();
+	}
+
+	@Benchmark
+	public Object getBeanByName() {
+		return context.getBean("personService");
+	}
+
+	@Benchmark
+	public Object factoryByName() {
+		return factory.getComponent("personService");
+	}
+
+	@Benchmark
+	public Object prototypeGetBean() {
+		return context.getBean(PROTOTYPE, Adress.class);
+	}
+
+	@Benchmark
+	public Object prototypeHandle() {
+		return adressHandle.get();
+	}
+
+}
@@ -0,0 +1,113 @@
+package net.jmb.tuto.spring.ioc.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import net.jmb.tuto.spring.ioc.JavaConfigApp;
+import net.jmb.tuto.spring.ioc.startup.ParallelPreInstantiationBeanFactory;
+
+/**
+ * Démarrage du contexte de <code>JavaConfigApp</code> complété de <code>pairs</code> paires indépendantes
+ * ressource / client, avec la <code>BeanFactory</code> standard (<code>parallelism</code> = 0)
+ * ou <code>ParallelPreInstantiationBeanFactory</code>.
+ * <p>
+ * L'initialisation de chaque ressource bloque <code>latency</code> ms (ex: ouverture d'une connexion) :
+ * c'est ce temps d'attente que l'instanciation parallèle recouvre, y compris sur un seul cœur.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ParallelStartupBenchmark {
+
+	@Param({ "0", "8" })
+	int parallelism;
+
+	@Param({ "0", "1" })
+	int latency;
+
+	@Param({ "100" })
+	int pairs;
+
+	@Setup
+	public void setUp() {
+		((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+		// Les méthodes @Bean de JavaConfigApp écrivent sur la sortie standard
+		System.setOut(new PrintStream(new OutputStream() {
+			@Override
+			public void write(int b) {
+			}
+		}));
+	}
+
+	@Benchmark
+	public Object startup() {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(new ParallelPreInstantiationBeanFactory(parallelism))) {
+			context.register(JavaConfigApp.class);
+			for (int i = 0; i < pairs; i++) {
+				RootBeanDefinition resource = new RootBeanDefinition(Resource.class);
+				resource.getPropertyValues().add("latency", latency);
+				resource.setAutowireCandidate(false);
+				context.registerBeanDefinition("resource" + i, resource);
+				RootBeanDefinition client = new RootBeanDefinition(Client.class);
+				client.getConstructorArgumentValues().addGenericArgumentValue(new RuntimeBeanReference("resource" + i));
+				client.setAutowireCandidate(false);
+				context.registerBeanDefinition("client" + i, client);
+			}
+			context.refresh();
+			return context.getBeanDefinitionCount();
+		}
+	}
+
+	public static class Resource implements InitializingBean {
+
+		private int latency;
+
+		public void setLatency(int latency) {
+			this.latency = latency;
+		}
+
+		@Override
+		public void afterPropertiesSet() throws InterruptedException {
+			if (latency > 0) {
+				TimeUnit.MILLISECONDS.sleep(latency);
+			}
+		}
+	}
+
+	public static class Client {
+
+		private final Resource resource;
+
+		public Client(Resource resource) {
+			this.resource = resource;
+		}
+
+		public Resource getResource() {
+			return resource;
+		}
+	}
+
+}
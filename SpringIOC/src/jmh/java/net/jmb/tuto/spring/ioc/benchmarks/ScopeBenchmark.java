@@ -0,0 +1,102 @@
+package net.jmb.tuto.spring.ioc.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import net.jmb.tuto.spring.ioc.JavaConfigApp;
+import net.jmb.tuto.spring.ioc.beans.Adress;
+import net.jmb.tuto.spring.ioc.beans.Person;
+import net.jmb.tuto.spring.ioc.scopes.UnitOfWorkScope;
+import net.jmb.tuto.spring.ioc.scopes.UnitOfWorkScope.UnitOfWork;
+
+/**
+ * Traitement d'une "requête" faisant <code>calls</code> appels à <code>getCity()</code> sur l'adresse injectée dans le contexte
+ * de <code>JavaConfigApp</code> :
+ * <ul>
+ * <li><code>adress</code> (prototype, proxy de portée) : une création de bean par appel
+ * <li><code>unitOfWorkAdress</code> (portée <code>UnitOfWorkScope</code>, proxy de portée) : une unité de travail par requête,
+ * une création de bean par unité
+ * <li>référence : instance directe, sans proxy
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScopeBenchmark {
+
+	@Param({ "1", "8" })
+	int calls;
+
+	AnnotationConfigApplicationContext context;
+	Adress direct;
+	Adress prototypeAdress;
+	Adress unitOfWorkAdress;
+	UnitOfWorkScope unitOfWorkScope;
+
+	@Setup
+	public void setUp() {
+		((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+		// Les méthodes @Bean de JavaConfigApp écrivent sur la sortie standard
+		System.setOut(new PrintStream(new OutputStream() {
+			@Override
+			public void write(int b) {
+			}
+		}));
+		context = new AnnotationConfigApplicationContext(JavaConfigApp.class);
+		direct = new Adress("73, traverse Régny", "13009", "Marseille");
+		prototypeAdress = context.getBean(Person.class).getAdress();
+		unitOfWorkAdress = context.getBean("unitOfWorkAdress", Adress.class);
+		unitOfWorkScope = context.getBean(UnitOfWorkScope.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public void direct(Blackhole blackhole) {
+		for (int i = 0; i < calls; i++) {
+			blackhole.consume(direct.getCity());
+		}
+	}
+
+	@Benchmark
+	public void prototypeScopedProxy(Blackhole blackhole) {
+		for (int i = 0; i < calls; i++) {
+			blackhole.consume(prototypeAdress.getCity());
+		}
+	}
+
+	@Benchmark
+	public void unitOfWorkScopedProxy(Blackhole blackhole) {
+		try (UnitOfWork unitOfWork = unitOfWorkScope.begin()) {
+			for (int i = 0; i < calls; i++) {
+				blackhole.consume(unitOfWorkAdress.getCity());
+			}
+		}
+	}
+
+}
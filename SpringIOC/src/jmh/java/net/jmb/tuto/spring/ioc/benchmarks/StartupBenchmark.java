@@ -0,0 +1,97 @@
+package net.jmb.tuto.spring.ioc.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import net.jmb.tuto.spring.ioc.FunctionalConfigApp;
+import net.jmb.tuto.spring.ioc.JavaConfigApp;
+
+/**
+ * Démarrage et arrêt du contexte de <code>JavaConfigApp</code> :
+ * <ul>
+ * <li><code>@ComponentScan</code> avec l'index des composants (<code>META-INF/spring.components</code>) ou en l'ignorant
+ * (<code>spring.index.ignore</code>, lu une fois par JVM : chaque valeur s'exécute dans son propre fork)
+ * <li>enregistrement fonctionnel de <code>FunctionalConfigApp</code> : ni scan, ni classe <code>@Configuration</code>
+ * </ul>
+ * Les deux contextes sont d'abord comparés (<code>FunctionalConfigApp.checkEquivalence()</code>), pour ne pas mesurer
+ * un équivalent fonctionnel qui aurait divergé.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class ComponentIndex {
+
+		@Param({ "false", "true" })
+		String ignore;
+
+		@Setup
+		public void setUp() {
+			System.setProperty("spring.index.ignore", ignore);
+		}
+	}
+
+	/**
+	 * Vérification limitée au fork de <code>functionalConfigApp</code> : elle chargerait sinon l'index des composants
+	 * avant que <code>ComponentIndex</code> ne fixe <code>spring.index.ignore</code>
+	 */
+	@State(Scope.Benchmark)
+	public static class CheckedEquivalence {
+
+		@Setup
+		public void setUp() {
+			FunctionalConfigApp.checkEquivalence();
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+		// Les méthodes @Bean de JavaConfigApp écrivent sur la sortie standard à chaque démarrage
+		System.setOut(new PrintStream(new OutputStream() {
+			@Override
+			public void write(int b) {
+			}
+		}));
+	}
+
+	@Benchmark
+	public Object javaConfigApp(ComponentIndex componentIndex) {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(JavaConfigApp.class)) {
+			return context.getBeanDefinitionCount();
+		}
+	}
+
+	@Benchmark
+	public Object functionalConfigApp(CheckedEquivalence checkedEquivalence) {
+		try (GenericApplicationContext context = new GenericApplicationContext()) {
+			new FunctionalConfigApp().initialize(context);
+			context.refresh();
+			return context.getBeanDefinitionCount();
+		}
+	}
+
+}
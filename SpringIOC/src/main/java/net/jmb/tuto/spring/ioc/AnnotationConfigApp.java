@@ -3,12 +3,21 @@ package net.jmb.tuto.spring.ioc;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
 
+import net.jmb.tuto.spring.ioc.startup.ProfiledClassPathXmlApplicationContext;
+import net.jmb.tuto.spring.ioc.startup.StartupProfiler;
+
 public class AnnotationConfigApp {
 
 	@SuppressWarnings("resource")
 	public static void main(String[] args) {
 		
-		ApplicationContext ctx = new ClassPathXmlApplicationContext("applicationContextWithAnnotations.xml");		
+		StartupProfiler profiler = StartupProfiler.fromSystemProperty();
+		ApplicationContext ctx = profiler != null
+				? new ProfiledClassPathXmlApplicationContext(profiler, "applicationContextWithAnnotations.xml")
+				: new ClassPathXmlApplicationContext("applicationContextWithAnnotations.xml");
+		if (profiler != null) {
+			profiler.publish();
+		}
 		
 		Object bean = ctx.getBean("bean");
 		System.out.println(bean);
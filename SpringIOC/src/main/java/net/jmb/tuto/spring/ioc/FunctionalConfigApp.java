@@ -0,0 +1,168 @@
+package net.jmb.tuto.spring.ioc;
+
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.aop.scope.ScopedProxyUtils;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.Profiles;
+import org.springframework.util.ClassUtils;
+
+import net.jmb.tuto.spring.ioc.beans.Person;
+import net.jmb.tuto.spring.ioc.factories.SpringComponentFactory;
+import net.jmb.tuto.spring.ioc.javaconfig.beans.Adress;
+import net.jmb.tuto.spring.ioc.scopes.UnitOfWorkScope;
+import net.jmb.tuto.spring.ioc.services.IPersonService;
+import net.jmb.tuto.spring.ioc.services.impl.AdressServiceFalse;
+import net.jmb.tuto.spring.ioc.services.impl.AdressServiceTrue;
+import net.jmb.tuto.spring.ioc.services.impl.PersonService;
+import net.jmb.tuto.spring.ioc.services.impl.PersonService2;
+
+/**
+ * Equivalent de <code>JavaConfigApp</code> par enregistrement fonctionnel des beans (<code>registerBean</code> et <code>Supplier</code>'s),
+ * tel que le produirait une génération de code à la compilation :
+ * <ul>
+ * <li>pas de scan du classpath : <code>javaconfig.beans.Person</code> est enregistré directement
+ * <li>pas de classe <code>@Configuration</code> à analyser ni à enrichir par CGLIB : les dépendances entre méthodes <code>@Bean</code>
+ * deviennent des <code>getBean</code> explicites
+ * <li>pas de post-processeurs d'annotations : aucun bean ne porte d'annotation d'injection
+ * </ul>
+ * Noms, portées (<code>adress</code> prototype derrière un proxy de portée), <code>@Lazy</code> et <code>@Profile("env2")</code>
+ * sont ceux de <code>JavaConfigApp</code>.
+ * <p>
+ * Cette classe est maintenue à la main : toute modification de <code>JavaConfigApp</code> (ou des composants
+ * de <code>javaconfig</code>) doit y être reportée. {@link #checkEquivalence()} (lancé par <code>main</code> avec
+ * l'argument <code>--check</code>, et avant chaque mesure de <code>StartupBenchmark</code>) compare les deux contextes.
+ */
+public class FunctionalConfigApp implements ApplicationContextInitializer<GenericApplicationContext> {
+
+	@SuppressWarnings("resource")
+	public static void main(String[] args) {
+		if (Arrays.asList(args).contains("--check")) {
+			checkEquivalence();
+		}
+		GenericApplicationContext ctx = new GenericApplicationContext();
+		new FunctionalConfigApp().initialize(ctx);
+		ctx.refresh();
+		
+		Person bean = ctx.getBean(Person.class);
+		System.out.println(bean);
+
+		IPersonService service = ctx.getBean(IPersonService.class);
+		System.out.println(service.validatePerson(bean));
+	}
+
+	@Override
+	public void initialize(GenericApplicationContext context) {
+		context.registerBean("componentFactory", SpringComponentFactory.class, SpringComponentFactory::new);
+
+		BeanDefinition adress = BeanDefinitionBuilder
+				.genericBeanDefinition(Adress.class, () -> new Adress("73, traverse Régny", "13009", "Marseille"))
+				.setScope(BeanDefinition.SCOPE_PROTOTYPE)
+				.getBeanDefinition();
+		BeanDefinitionHolder adressProxy = ScopedProxyUtils.createScopedProxy(new BeanDefinitionHolder(adress, "adress"), context, true);
+		context.registerBeanDefinition(adressProxy.getBeanName(), adressProxy.getBeanDefinition());
+
+		context.registerBean("unitOfWorkScope", UnitOfWorkScope.class, UnitOfWorkScope::new);
+		BeanDefinition unitOfWorkAdress = BeanDefinitionBuilder
+				.genericBeanDefinition(Adress.class, () -> new Adress("73, traverse Régny", "13009", "Marseille"))
+				.setScope(UnitOfWorkScope.NAME)
+				.getBeanDefinition();
+		unitOfWorkAdress.setAutowireCandidate(false);
+		BeanDefinitionHolder unitOfWorkAdressProxy = ScopedProxyUtils.createScopedProxy(
+				new BeanDefinitionHolder(unitOfWorkAdress, "unitOfWorkAdress"), context, true);
+		context.registerBeanDefinition(unitOfWorkAdressProxy.getBeanName(), unitOfWorkAdressProxy.getBeanDefinition());
+
+		context.registerBean("adressService", AdressServiceTrue.class, () -> {
+			AdressServiceTrue adressService = new AdressServiceTrue();
+			System.out.println("adressServiceTrue: " + adressService);
+			return adressService;
+		}, definition -> definition.setLazyInit(true));
+
+		context.registerBean("adressServiceFalse", AdressServiceFalse.class, () -> {
+			AdressServiceFalse adressService = new AdressServiceFalse();
+			System.out.println("adressServiceFalse: " + adressService);
+			return adressService;
+		}, definition -> definition.setLazyInit(true));
+
+		if (context.getEnvironment().acceptsProfiles(Profiles.of("env2"))) {
+			context.registerBean("personService", PersonService2.class, () -> {
+				PersonService2 personService2 = new PersonService2(context.getBean("adressService", AdressServiceTrue.class));
+				System.out.println("personService2: " + personService2);
+				return personService2;
+			});
+		} else {
+			context.registerBean("personService", PersonService.class, () -> {
+				PersonService personService = new PersonService(context.getBean("adressService", AdressServiceTrue.class));
+				System.out.println("personService: " + personService);
+				return personService;
+			});
+		}
+
+		context.registerBean("person", net.jmb.tuto.spring.ioc.javaconfig.beans.Person.class, () -> newPerson(context));
+	}
+
+	/**
+	 * Vérifie que <code>FunctionalConfigApp</code> et <code>JavaConfigApp</code> définissent les mêmes beans
+	 * (noms, types, portées, lazy, candidats à l'injection), sans profil actif et avec le profil <code>env2</code>
+	 *
+	 * @throws IllegalStateException en cas d'écart
+	 */
+	public static void checkEquivalence() {
+		for (String[] profiles : new String[][] { {}, { "env2" } }) {
+			Map<String, String> javaConfigBeans;
+			try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext()) {
+				ctx.getEnvironment().setActiveProfiles(profiles);
+				ctx.register(JavaConfigApp.class);
+				ctx.refresh();
+				javaConfigBeans = describeBeans(ctx.getBeanFactory());
+			}
+			javaConfigBeans.remove("javaConfigApp");
+			Map<String, String> functionalBeans;
+			try (GenericApplicationContext ctx = new GenericApplicationContext()) {
+				ctx.getEnvironment().setActiveProfiles(profiles);
+				new FunctionalConfigApp().initialize(ctx);
+				ctx.refresh();
+				functionalBeans = describeBeans(ctx.getBeanFactory());
+			}
+			if (!javaConfigBeans.equals(functionalBeans)) {
+				throw new IllegalStateException("FunctionalConfigApp diffère de JavaConfigApp (profils " + Arrays.toString(profiles)
+						+ ") :\n  JavaConfigApp       " + javaConfigBeans + "\n  FunctionalConfigApp " + functionalBeans);
+			}
+		}
+	}
+
+	private static Map<String, String> describeBeans(ConfigurableListableBeanFactory beanFactory) {
+		Map<String, String> beans = new TreeMap<>();
+		for (String beanName : beanFactory.getBeanDefinitionNames()) {
+			BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+			if (definition.getRole() == BeanDefinition.ROLE_APPLICATION) {
+				Class<?> type = beanFactory.getType(beanName);
+				beans.put(beanName, (type != null ? ClassUtils.getUserClass(type).getName() : "?")
+						+ " " + (definition.isSingleton() ? BeanDefinition.SCOPE_SINGLETON : definition.getScope())
+						+ (definition.isLazyInit() ? " lazy" : "")
+						+ (definition.isAutowireCandidate() ? "" : " !autowireCandidate"));
+			}
+		}
+		return beans;
+	}
+
+	private static net.jmb.tuto.spring.ioc.javaconfig.beans.Person newPerson(ApplicationContext context) {
+		try {
+			return new net.jmb.tuto.spring.ioc.javaconfig.beans.Person(context.getBean(net.jmb.tuto.spring.ioc.beans.Adress.class));
+		} catch (ParseException e) {
+			throw new BeanCreationException("person", "Date de naissance invalide", e);
+		}
+	}
+
+}
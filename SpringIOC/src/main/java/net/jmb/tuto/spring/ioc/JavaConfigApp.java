@@ -13,12 +13,17 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.context.annotation.ScopedProxyMode;
 
 import net.jmb.tuto.spring.ioc.beans.Person;
+import net.jmb.tuto.spring.ioc.factories.SpringComponentFactory;
 import net.jmb.tuto.spring.ioc.javaconfig.beans.Adress;
+import net.jmb.tuto.spring.ioc.scopes.UnitOfWorkScope;
+import net.jmb.tuto.spring.ioc.scopes.UnitOfWorkScope.UnitOfWork;
 import net.jmb.tuto.spring.ioc.services.IPersonService;
 import net.jmb.tuto.spring.ioc.services.impl.AdressServiceFalse;
 import net.jmb.tuto.spring.ioc.services.impl.AdressServiceTrue;
 import net.jmb.tuto.spring.ioc.services.impl.PersonService;
 import net.jmb.tuto.spring.ioc.services.impl.PersonService2;
+import net.jmb.tuto.spring.ioc.startup.ProfiledAnnotationConfigApplicationContext;
+import net.jmb.tuto.spring.ioc.startup.StartupProfiler;
 
 @Configuration
 @ComponentScan(basePackages = "net.jmb.tuto.spring.ioc.javaconfig")
@@ -27,23 +32,56 @@ public class JavaConfigApp {
 
 	@SuppressWarnings("resource")
 	public static void main(String[] args) {
-		ApplicationContext ctx = new AnnotationConfigApplicationContext(JavaConfigApp.class);
+		StartupProfiler profiler = StartupProfiler.fromSystemProperty();
+		ApplicationContext ctx = profiler != null
+				? new ProfiledAnnotationConfigApplicationContext(profiler, JavaConfigApp.class)
+				: new AnnotationConfigApplicationContext(JavaConfigApp.class);
+		if (profiler != null) {
+			profiler.publish();
+		}
+		
 		Person bean = ctx.getBean(Person.class);
 		System.out.println(bean);
 
 		IPersonService service = ctx.getBean(IPersonService.class);
 		System.out.println(service.validatePerson(bean));
 
+		Adress unitOfWorkAdress = ctx.getBean("unitOfWorkAdress", Adress.class);
+		try (UnitOfWork unitOfWork = ctx.getBean(UnitOfWorkScope.class).begin()) {
+			System.out.println(unitOfWork.getId() + ": " + unitOfWorkAdress.getCity() + " " + unitOfWorkAdress.getZipCode() + " " + unitOfWork);
+		}
+
 //		service = ctx.getBean(PersonService2.class);
 //		System.out.println(service.validatePerson(bean));
 	}
 
+	@Bean
+	SpringComponentFactory componentFactory() {
+		return new SpringComponentFactory();
+	}
+
 	@Bean()
 	@Scope(value = "prototype", proxyMode = ScopedProxyMode.TARGET_CLASS)
 	public Adress adress() {
 		return new Adress("73, traverse Régny", "13009", "Marseille");
 	}
 
+	@Bean
+	static UnitOfWorkScope unitOfWorkScope() {
+		return new UnitOfWorkScope();
+	}
+
+	/**
+	 * Variante de <code>adress</code> : une seule instance par unité de travail au lieu d'une par appel de méthode.
+	 * Non candidate à l'injection par type, pour ne pas concurrencer <code>adress</code>.
+	 * Sans méthode de destruction : la recherche d'une méthode close()/shutdown() inférée serait refaite à chaque création.
+	 */
+	@Bean(autowireCandidate = false, destroyMethod = "")
+	@Scope(value = UnitOfWorkScope.NAME, proxyMode = ScopedProxyMode.TARGET_CLASS)
+	public Adress unitOfWorkAdress() {
+		return new Adress("73, traverse Régny", "13009", "Marseille");
+	}
+
 	@Bean("adressService")
 	@Lazy
 	AdressServiceTrue adressServiceTrue() {
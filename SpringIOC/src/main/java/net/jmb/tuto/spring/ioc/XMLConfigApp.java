@@ -3,12 +3,21 @@ package net.jmb.tuto.spring.ioc;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
 
+import net.jmb.tuto.spring.ioc.startup.ProfiledClassPathXmlApplicationContext;
+import net.jmb.tuto.spring.ioc.startup.StartupProfiler;
+
 public class XMLConfigApp {
 
 	@SuppressWarnings("resource")
 	public static void main(String[] args) {
 		
-		ApplicationContext ctx = new ClassPathXmlApplicationContext("applicationContext.xml");		
+		StartupProfiler profiler = StartupProfiler.fromSystemProperty();
+		ApplicationContext ctx = profiler != null
+				? new ProfiledClassPathXmlApplicationContext(profiler, "applicationContext.xml")
+				: new ClassPathXmlApplicationContext("applicationContext.xml");
+		if (profiler != null) {
+			profiler.publish();
+		}
 		
 		Object bean = ctx.getBean("person");
 		System.out.println(bean);
@@ -0,0 +1,16 @@
+package net.jmb.tuto.spring.ioc.factories;
+
+/**
+ * Accès typé à un composant dont le nom est résolu une fois pour toutes :
+ * chaque appel à {@link #get()} renvoie l'instance singleton ou crée une nouvelle instance (prototype, scope)
+ * sans nouvelle recherche par type.
+ */
+public interface ComponentHandle<T> {
+
+	T get();
+
+	String getName();
+
+	Class<T> getType();
+
+}
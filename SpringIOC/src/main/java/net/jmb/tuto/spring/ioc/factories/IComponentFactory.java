@@ -7,5 +7,9 @@ public interface IComponentFactory {
 	Object getComponent(String name);
 	
 	<T> T getComponent(String name, Class<T> clss);
+	
+	<T> ComponentHandle<T> getHandle(Class<T> clss);
+	
+	<T> ComponentHandle<T> getHandle(String name, Class<T> clss);
 
 }
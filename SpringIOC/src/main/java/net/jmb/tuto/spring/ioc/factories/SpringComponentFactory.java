@@ -1,35 +1,201 @@
 package net.jmb.tuto.spring.ioc.factories;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.NamedBeanHolder;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ApplicationContextEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
 
-public class SpringComponentFactory implements IComponentFactory, ApplicationContextAware {
+/**
+ * <code>IComponentFactory</code> adossée à l'<code>ApplicationContext</code> :
+ * <ul>
+ * <li>les singletons obtenus par type ou par nom sont mis en cache, les autres composants (prototype, scope)
+ * sont recréés à chaque appel comme par <code>getBean</code>
+ * <li>les {@link ComponentHandle}'s résolvent le nom du composant une seule fois, selon les règles de <code>getBean</code>
+ * par type (<code>resolveNamedBean</code> : candidats à l'injection, bean "primary" ou de plus haute <code>@Priority</code>,
+ * <code>BeanFactory</code>'s parentes)
+ * </ul>
+ * Caches et handles sont invalidés au rafraîchissement et à la fermeture du contexte : la factory doit pour cela
+ * être déclarée comme bean de ce contexte.
+ */
+public class SpringComponentFactory implements IComponentFactory, ApplicationContextAware, ApplicationListener<ApplicationContextEvent> {
 	
 	private ApplicationContext applicationContext;
-		
+	
+	private final Map<Class<?>, Object> singletonsByType = new ConcurrentHashMap<>();
+	private final Map<String, Object> singletonsByName = new ConcurrentHashMap<>();
+	private volatile int generation;
 
 	@Override
 	public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
 		this.applicationContext = applicationContext;
+		invalidate();
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationContextEvent event) {
+		if (event.getApplicationContext() == applicationContext
+				&& (event instanceof ContextRefreshedEvent || event instanceof ContextClosedEvent)) {
+			invalidate();
+		}
+	}
+
+	/**
+	 * Vide les caches ; les handles existants se résoudront à nouveau à leur prochain appel
+	 */
+	public void invalidate() {
+		generation++;
+		singletonsByType.clear();
+		singletonsByName.clear();
 	}
 
 	@Override
 	public <T> T getComponent(Class<T> clss) {
-		return applicationContext.getBean(clss);
+		Object singleton = singletonsByType.get(clss);
+		if (singleton != null) {
+			return clss.cast(singleton);
+		}
+		int currentGeneration = generation;
+		NamedBeanHolder<T> holder = applicationContext.getAutowireCapableBeanFactory().resolveNamedBean(clss);
+		if (applicationContext.isSingleton(holder.getBeanName())) {
+			cache(singletonsByType, clss, holder.getBeanInstance(), currentGeneration);
+		}
+		return holder.getBeanInstance();
 	}
 
 	@Override
 	public Object getComponent(String name) {
-		return applicationContext.getBean(name);
+		Object singleton = singletonsByName.get(name);
+		if (singleton != null) {
+			return singleton;
+		}
+		int currentGeneration = generation;
+		Object bean = applicationContext.getBean(name);
+		if (applicationContext.isSingleton(name)) {
+			cache(singletonsByName, name, bean, currentGeneration);
+		}
+		return bean;
 	}
 
 	@Override
 	public <T> T getComponent(String name, Class<T> clss) {
-		return applicationContext.getBean(name, clss);
+		Object singleton = singletonsByName.get(name);
+		if (clss.isInstance(singleton)) {
+			return clss.cast(singleton);
+		}
+		int currentGeneration = generation;
+		T bean = applicationContext.getBean(name, clss);
+		if (singleton == null && applicationContext.isSingleton(name)) {
+			cache(singletonsByName, name, bean, currentGeneration);
+		}
+		return bean;
+	}
+
+	@Override
+	public <T> ComponentHandle<T> getHandle(Class<T> clss) {
+		return new SpringComponentHandle<>(null, clss);
+	}
+
+	@Override
+	public <T> ComponentHandle<T> getHandle(String name, Class<T> clss) {
+		return new SpringComponentHandle<>(name, clss);
+	}
+
+	/**
+	 * Mise en cache, annulée si le cache a été invalidé pendant la résolution
+	 */
+	private <K> void cache(Map<K, Object> cache, K key, Object bean, int resolutionGeneration) {
+		cache.put(key, bean);
+		if (generation != resolutionGeneration) {
+			cache.remove(key, bean);
+		}
+	}
+
+	private final class SpringComponentHandle<T> implements ComponentHandle<T> {
+
+		private final String name;
+		private final Class<T> type;
+		private volatile Resolution<T> resolution;
+
+		SpringComponentHandle(String name, Class<T> type) {
+			this.name = name;
+			this.type = type;
+		}
+
+		@Override
+		public T get() {
+			Resolution<T> current = resolution;
+			if (current == null || current.generation != generation) {
+				return resolve();
+			}
+			return current.singleton != null ? current.singleton : applicationContext.getBean(current.beanName, type);
+		}
+
+		/**
+		 * Nom du composant ; un handle par type est résolu pour cela (et le composant obtenu) s'il ne l'est pas encore
+		 */
+		@Override
+		public String getName() {
+			if (name != null) {
+				return name;
+			}
+			Resolution<T> current = resolution;
+			if (current == null || current.generation != generation) {
+				resolve();
+				current = resolution;
+			}
+			return current.beanName;
+		}
+
+		@Override
+		public Class<T> getType() {
+			return type;
+		}
+
+		/**
+		 * Résolution du nom (mémorisée) et composant obtenu par cette résolution
+		 */
+		private T resolve() {
+			int currentGeneration = generation;
+			String beanName;
+			T instance;
+			if (name != null) {
+				beanName = name;
+				instance = applicationContext.getBean(name, type);
+			} else {
+				NamedBeanHolder<T> holder = applicationContext.getAutowireCapableBeanFactory().resolveNamedBean(type);
+				beanName = holder.getBeanName();
+				instance = holder.getBeanInstance();
+			}
+			resolution = new Resolution<>(beanName, applicationContext.isSingleton(beanName) ? instance : null, currentGeneration);
+			return instance;
+		}
+
+		@Override
+		public String toString() {
+			Resolution<T> current = resolution;
+			return "ComponentHandle [name=" + (name != null ? name : current != null ? current.beanName : "?")
+					+ ", type=" + type.getName() + "]";
+		}
+	}
+
+	private static final class Resolution<T> {
+
+		final String beanName;
+		final T singleton;
+		final int generation;
+
+		Resolution(String beanName, T singleton, int generation) {
+			this.beanName = beanName;
+			this.singleton = singleton;
+			this.generation = generation;
+		}
 	}
-	
-	
 
-	
 }
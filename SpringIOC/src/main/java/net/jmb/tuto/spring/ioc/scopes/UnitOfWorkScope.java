@@ -0,0 +1,142 @@
+package net.jmb.tuto.spring.ioc.scopes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.Scope;
+
+/**
+ * Portée "unité de travail" : une instance par bean et par unité de travail, ouverte et fermée explicitement
+ * par le thread qui l'utilise ({@link #begin()}, {@link UnitOfWork#close()}).
+ * <p>
+ * Derrière un proxy de portée, un appel de méthode ne crée donc plus un bean comme en portée prototype,
+ * mais retrouve l'instance de l'unité de travail en cours ; les rappels de destruction sont exécutés à sa fermeture.
+ * L'accès à un bean de cette portée hors unité de travail lève une <code>IllegalStateException</code>.
+ * <p>
+ * Déclarée comme bean, la portée s'enregistre elle-même sous le nom {@link #NAME} (comme le ferait un <code>CustomScopeConfigurer</code>).
+ */
+public class UnitOfWorkScope implements Scope, BeanFactoryPostProcessor {
+
+	public static final String NAME = "unitOfWork";
+
+	private static final AtomicLong UNIT_OF_WORK_IDS = new AtomicLong();
+
+	private final ThreadLocal<UnitOfWork> current = new ThreadLocal<>();
+
+	@Override
+	public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+		beanFactory.registerScope(NAME, this);
+	}
+
+	/**
+	 * Ouverture d'une unité de travail sur le thread courant, à fermer par le même thread (try-with-resources)
+	 */
+	public UnitOfWork begin() {
+		if (current.get() != null) {
+			throw new IllegalStateException("Une unité de travail est déjà en cours : " + current.get().getId());
+		}
+		UnitOfWork unitOfWork = new UnitOfWork(this, NAME + "-" + UNIT_OF_WORK_IDS.incrementAndGet());
+		current.set(unitOfWork);
+		return unitOfWork;
+	}
+
+	/**
+	 * Unité de travail en cours sur le thread courant, <code>null</code> s'il n'y en a pas
+	 */
+	public UnitOfWork getCurrent() {
+		return current.get();
+	}
+
+	@Override
+	public Object get(String name, ObjectFactory<?> objectFactory) {
+		UnitOfWork unitOfWork = currentUnitOfWork(name);
+		Object bean = unitOfWork.beans.get(name);
+		if (bean == null) {
+			bean = objectFactory.getObject();
+			unitOfWork.beans.put(name, bean);
+		}
+		return bean;
+	}
+
+	@Override
+	public Object remove(String name) {
+		UnitOfWork unitOfWork = current.get();
+		if (unitOfWork == null) {
+			return null;
+		}
+		unitOfWork.destructionCallbacks.remove(name);
+		return unitOfWork.beans.remove(name);
+	}
+
+	@Override
+	public void registerDestructionCallback(String name, Runnable callback) {
+		currentUnitOfWork(name).destructionCallbacks.put(name, callback);
+	}
+
+	@Override
+	public Object resolveContextualObject(String key) {
+		return NAME.equals(key) ? current.get() : null;
+	}
+
+	@Override
+	public String getConversationId() {
+		UnitOfWork unitOfWork = current.get();
+		return unitOfWork != null ? unitOfWork.getId() : null;
+	}
+
+	private UnitOfWork currentUnitOfWork(String name) {
+		UnitOfWork unitOfWork = current.get();
+		if (unitOfWork == null) {
+			throw new IllegalStateException("Bean '" + name + "' de portée " + NAME + " demandé hors unité de travail");
+		}
+		return unitOfWork;
+	}
+
+	public static final class UnitOfWork implements AutoCloseable {
+
+		private final UnitOfWorkScope scope;
+		private final String id;
+		private final Map<String, Object> beans = new HashMap<>();
+		private final Map<String, Runnable> destructionCallbacks = new LinkedHashMap<>();
+
+		UnitOfWork(UnitOfWorkScope scope, String id) {
+			this.scope = scope;
+			this.id = id;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		/**
+		 * Fermeture : les beans de l'unité sont détruits dans l'ordre inverse de leur création
+		 */
+		@Override
+		public void close() {
+			if (scope.current.get() != this) {
+				throw new IllegalStateException("L'unité de travail " + id + " n'est pas celle du thread courant");
+			}
+			scope.current.remove();
+			List<Runnable> callbacks = new ArrayList<>(destructionCallbacks.values());
+			for (int i = callbacks.size() - 1; i >= 0; i--) {
+				callbacks.get(i).run();
+			}
+			destructionCallbacks.clear();
+			beans.clear();
+		}
+
+		@Override
+		public String toString() {
+			return "UnitOfWork [id=" + id + ", beans=" + beans.keySet() + "]";
+		}
+	}
+
+}
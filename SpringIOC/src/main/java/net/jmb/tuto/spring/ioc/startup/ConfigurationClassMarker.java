@@ -0,0 +1,74 @@
+package net.jmb.tuto.spring.ioc.startup;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+
+/**
+ * Marqueurs encadrant le <code>ConfigurationClassPostProcessor</code> (<code>PriorityOrdered</code>, de plus faible priorité) :
+ * le marqueur de début est <code>PriorityOrdered</code> de plus haute priorité, celui de fin est seulement <code>Ordered</code>
+ * et s'exécute donc après tous les post-processeurs prioritaires.
+ * <ul>
+ * <li><code>configurationClasses</code> : analyse des classes <code>@Configuration</code>, scan des composants, méthodes <code>@Bean</code>
+ * <li><code>configurationClassEnhancement</code> : enrichissement CGLIB des classes <code>@Configuration</code>
+ * </ul>
+ */
+abstract class ConfigurationClassMarker implements BeanDefinitionRegistryPostProcessor {
+
+	static final String PARSING = "configurationClasses";
+	static final String ENHANCEMENT = "configurationClassEnhancement";
+
+	final StartupProfiler profiler;
+
+	ConfigurationClassMarker(StartupProfiler profiler) {
+		this.profiler = profiler;
+	}
+
+	static final class Start extends ConfigurationClassMarker implements PriorityOrdered {
+
+		Start(StartupProfiler profiler) {
+			super(profiler);
+		}
+
+		@Override
+		public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) throws BeansException {
+			profiler.begin(PARSING);
+		}
+
+		@Override
+		public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+			profiler.begin(ENHANCEMENT);
+		}
+
+		@Override
+		public int getOrder() {
+			return Ordered.HIGHEST_PRECEDENCE;
+		}
+	}
+
+	static final class End extends ConfigurationClassMarker implements Ordered {
+
+		End(StartupProfiler profiler) {
+			super(profiler);
+		}
+
+		@Override
+		public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) throws BeansException {
+			profiler.end(PARSING);
+		}
+
+		@Override
+		public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+			profiler.end(ENHANCEMENT);
+		}
+
+		@Override
+		public int getOrder() {
+			return Ordered.HIGHEST_PRECEDENCE;
+		}
+	}
+
+}
@@ -0,0 +1,394 @@
+package net.jmb.tuto.spring.ioc.startup;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.FatalBeanException;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.BeanCurrentlyInCreationException;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanReference;
+import org.springframework.beans.factory.config.ConstructorArgumentValues.ValueHolder;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * <code>BeanFactory</code> dont les singletons non lazy sont instanciés en parallèle, par sous-graphes de dépendances indépendants :
+ * <ul>
+ * <li>analyse du graphe de dépendances déclarées (références XML, <code>depends-on</code>, paramètres des constructeurs
+ * et méthodes <code>@Bean</code>, champs et méthodes <code>@Autowired</code>) ; la classe <code>@Configuration</code>
+ * (<code>factory-bean</code>) commune aux beans <code>@Bean</code> ne les relie pas
+ * <li>chaque sous-graphe est instancié par un thread d'un pool de <code>parallelism</code> threads, par <code>getBean</code>
+ * dans l'ordre d'enregistrement : au sein d'un sous-graphe, les dépendances sont créées avant les beans qui les utilisent,
+ * comme en instanciation séquentielle
+ * <li>les <code>FactoryBean</code>'s, les callbacks <code>SmartInitializingSingleton</code> et les beans restants
+ * sont ensuite traités séquentiellement par <code>preInstantiateSingletons()</code> standard
+ * </ul>
+ * Verrou <code>singletonObjects</code> : <code>DefaultSingletonBeanRegistry.getSingleton(String, ObjectFactory)</code>
+ * tient ce verrou global pendant toute la création d'un singleton, ce qui sérialiserait les threads. Pendant la phase parallèle,
+ * cette méthode est redéfinie : la création est réservée bean par bean (un seul thread crée un bean donné), sans verrou global ;
+ * l'enregistrement final (<code>addSingleton</code>) reprend le verrou le temps d'une écriture.
+ * <p>
+ * Dépendances non déclarées (ex: appel d'une méthode <code>@Bean</code> depuis une autre) : un thread demandant un bean
+ * en cours de création par un autre attend la fin de cette création au lieu de recevoir une référence anticipée incomplète.
+ * Si cette attente formerait un cycle entre threads, la référence anticipée est renvoyée comme en instanciation séquentielle
+ * (dépendance circulaire) ; un cycle par constructeurs échoue, comme en séquentiel. Un thread qui tient déjà le verrou global
+ * (produit d'une <code>FactoryBean</code>) ne peut pas attendre un autre thread : il échoue par une
+ * <code>BeanCurrentlyInCreationException</code> explicite.
+ * <p>
+ * Activation : <code>new AnnotationConfigApplicationContext(new ParallelPreInstantiationBeanFactory(4))</code>,
+ * puis <code>register(...)</code> et <code>refresh()</code>.
+ */
+public class ParallelPreInstantiationBeanFactory extends DefaultListableBeanFactory {
+
+	private final int parallelism;
+
+	private volatile boolean parallelPhase;
+	private final Object creationMonitor = new Object();
+	private final Map<String, Thread> creators = new HashMap<>();
+	private final Map<Thread, String> waits = new HashMap<>();
+
+	/**
+	 * @param parallelism nombre de threads d'instanciation, 0 pour le comportement standard
+	 */
+	public ParallelPreInstantiationBeanFactory(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	@Override
+	public void preInstantiateSingletons() throws BeansException {
+		if (parallelism > 0) {
+			List<Set<String>> subgraphs = getIndependentSubgraphs();
+			if (subgraphs.size() > 1) {
+				instantiateInParallel(subgraphs);
+			}
+		}
+		super.preInstantiateSingletons();
+	}
+
+	private void instantiateInParallel(List<Set<String>> subgraphs) {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, subgraphs.size()), new InstantiationThreadFactory());
+		parallelPhase = true;
+		try {
+			List<Future<?>> results = new ArrayList<>();
+			for (Set<String> subgraph : subgraphs) {
+				results.add(executor.submit(() -> subgraph.forEach(this::getBean)));
+			}
+			BeansException failure = null;
+			for (Future<?> result : results) {
+				try {
+					result.get();
+				} catch (ExecutionException e) {
+					if (failure == null) {
+						failure = e.getCause() instanceof BeansException ? (BeansException) e.getCause()
+								: new FatalBeanException("Echec de l'instanciation parallèle des singletons", e.getCause());
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new FatalBeanException("Instanciation parallèle des singletons interrompue", e);
+				}
+			}
+			if (failure != null) {
+				throw failure;
+			}
+		} finally {
+			parallelPhase = false;
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Création réservée bean par bean pendant la phase parallèle, sans le verrou global <code>singletonObjects</code>
+	 */
+	@Override
+	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
+		if (!parallelPhase) {
+			return super.getSingleton(beanName, singletonFactory);
+		}
+		Boolean acquired = acquireCreation(beanName);
+		if (acquired == null) {
+			Object singleton = super.getSingleton(beanName, true);
+			if (singleton == null) {
+				throw new BeanCurrentlyInCreationException(beanName,
+						"Bean en cours de création par un autre thread, qui attend lui-même le thread courant");
+			}
+			return singleton;
+		}
+		try {
+			if (containsSingleton(beanName)) {
+				return super.getSingleton(beanName, false);
+			}
+			// Réentrance (dépendance circulaire dans le même thread) : échec de beforeSingletonCreation comme en séquentiel
+			beforeSingletonCreation(beanName);
+			Object singleton;
+			try {
+				singleton = singletonFactory.getObject();
+			} catch (IllegalStateException e) {
+				// Singleton enregistré entre-temps par ailleurs (comme DefaultSingletonBeanRegistry)
+				singleton = super.getSingleton(beanName, false);
+				if (singleton == null) {
+					throw e;
+				}
+				return singleton;
+			} finally {
+				afterSingletonCreation(beanName);
+			}
+			addSingleton(beanName, singleton);
+			return singleton;
+		} finally {
+			if (acquired) {
+				releaseCreation(beanName);
+			}
+		}
+	}
+
+	/**
+	 * Attente de la fin d'une création en cours dans un autre thread, plutôt qu'une référence anticipée incomplète
+	 */
+	@Override
+	protected Object getSingleton(String beanName, boolean allowEarlyReference) {
+		if (parallelPhase && allowEarlyReference) {
+			awaitOtherCreator(beanName);
+		}
+		return super.getSingleton(beanName, allowEarlyReference);
+	}
+
+	/**
+	 * Réserve la création du bean pour le thread courant, après l'éventuelle création par un autre thread
+	 *
+	 * @return <code>true</code> si réservé, <code>false</code> si déjà réservé par le thread courant,
+	 *         <code>null</code> si attendre l'autre thread formerait un cycle
+	 */
+	private Boolean acquireCreation(String beanName) {
+		Thread current = Thread.currentThread();
+		synchronized (creationMonitor) {
+			while (true) {
+				Thread creator = creators.get(beanName);
+				if (creator == current) {
+					return false;
+				}
+				if (creator == null) {
+					creators.put(beanName, current);
+					return true;
+				}
+				if (!awaitCreator(beanName, creator, current)) {
+					return null;
+				}
+			}
+		}
+	}
+
+	private void releaseCreation(String beanName) {
+		synchronized (creationMonitor) {
+			creators.remove(beanName);
+			creationMonitor.notifyAll();
+		}
+	}
+
+	private void awaitOtherCreator(String beanName) {
+		Thread current = Thread.currentThread();
+		synchronized (creationMonitor) {
+			Thread creator = creators.get(beanName);
+			while (creator != null && creator != current && awaitCreator(beanName, creator, current)) {
+				creator = creators.get(beanName);
+			}
+		}
+	}
+
+	/**
+	 * Une attente sur <code>creationMonitor</code> (tenu par l'appelant)
+	 *
+	 * @return <code>false</code>, sans attendre, si l'attente est impossible : cycle entre threads, ou verrou global tenu
+	 */
+	private boolean awaitCreator(String beanName, Thread creator, Thread current) {
+		if (Thread.holdsLock(getSingletonMutex()) || isWaitingFor(creator, current)) {
+			return false;
+		}
+		waits.put(current, beanName);
+		try {
+			creationMonitor.wait();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BeanCurrentlyInCreationException(beanName, "Attente de création interrompue");
+		} finally {
+			waits.remove(current);
+		}
+		return true;
+	}
+
+	/**
+	 * Vrai si <code>creator</code> attend, directement ou non, un bean en cours de création par <code>current</code>
+	 */
+	private boolean isWaitingFor(Thread creator, Thread current) {
+		Set<Thread> visited = new HashSet<>();
+		Thread thread = creator;
+		while (thread != null && visited.add(thread)) {
+			if (thread == current) {
+				return true;
+			}
+			String awaitedBean = waits.get(thread);
+			thread = awaitedBean != null ? creators.get(awaitedBean) : null;
+		}
+		return false;
+	}
+
+	/**
+	 * Singletons non lazy (hors <code>FactoryBean</code>'s) regroupés par sous-graphes de dépendances indépendants,
+	 * dans l'ordre d'enregistrement de leur premier bean
+	 */
+	public List<Set<String>> getIndependentSubgraphs() {
+		List<String> beanNames = new ArrayList<>();
+		for (String beanName : getBeanDefinitionNames()) {
+			RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+			if (!mbd.isAbstract() && mbd.isSingleton() && !mbd.isLazyInit() && !containsSingleton(beanName)
+					&& !isFactoryBean(beanName)) {
+				beanNames.add(beanName);
+			}
+		}
+
+		// getBeanNamesForType(type, true, false) n'est pas mis en cache par la BeanFactory
+		Map<Class<?>, String[]> candidatesByType = new HashMap<>();
+		Map<String, String> parents = new HashMap<>();
+		beanNames.forEach(beanName -> parents.put(beanName, beanName));
+		for (String beanName : beanNames) {
+			for (String dependency : getDeclaredDependencies(beanName, candidatesByType)) {
+				String canonicalName = canonicalName(dependency);
+				if (parents.containsKey(canonicalName)) {
+					parents.put(find(parents, beanName), find(parents, canonicalName));
+				}
+			}
+		}
+
+		Map<String, Set<String>> subgraphs = new LinkedHashMap<>();
+		for (String beanName : beanNames) {
+			subgraphs.computeIfAbsent(find(parents, beanName), root -> new LinkedHashSet<>()).add(beanName);
+		}
+		return new ArrayList<>(subgraphs.values());
+	}
+
+	private static String find(Map<String, String> parents, String beanName) {
+		String root = beanName;
+		while (!root.equals(parents.get(root))) {
+			root = parents.get(root);
+		}
+		parents.put(beanName, root);
+		return root;
+	}
+
+	/**
+	 * Dépendances déduites de la définition du bean, sans instancier quoi que ce soit (hors <code>factory-bean</code>)
+	 */
+	protected Set<String> getDeclaredDependencies(String beanName, Map<Class<?>, String[]> candidatesByType) {
+		RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+		Set<String> dependencies = new LinkedHashSet<>();
+		if (mbd.getDependsOn() != null) {
+			dependencies.addAll(Arrays.asList(mbd.getDependsOn()));
+		}
+		if (mbd.hasConstructorArgumentValues()) {
+			mbd.getConstructorArgumentValues().getIndexedArgumentValues().values()
+				.forEach(holder -> addReference(holder, dependencies));
+			mbd.getConstructorArgumentValues().getGenericArgumentValues()
+				.forEach(holder -> addReference(holder, dependencies));
+		}
+		for (PropertyValue propertyValue : mbd.getPropertyValues().getPropertyValueList()) {
+			if (propertyValue.getValue() instanceof BeanReference) {
+				dependencies.add(((BeanReference) propertyValue.getValue()).getBeanName());
+			}
+		}
+
+		Class<?> beanClass = resolveQuietly(mbd, beanName);
+		if (mbd.getFactoryMethodName() != null) {
+			Class<?> factoryClass = mbd.getFactoryBeanName() != null ? getType(mbd.getFactoryBeanName(), false) : beanClass;
+			if (factoryClass != null) {
+				for (Method method : ReflectionUtils.getUniqueDeclaredMethods(ClassUtils.getUserClass(factoryClass))) {
+					if (method.getName().equals(mbd.getFactoryMethodName())) {
+						addCandidates(method, dependencies, candidatesByType);
+					}
+				}
+			}
+		} else if (beanClass != null && mbd.getInstanceSupplier() == null) {
+			if (!mbd.hasConstructorArgumentValues()) {
+				for (Constructor<?> constructor : beanClass.getDeclaredConstructors()) {
+					addCandidates(constructor, dependencies, candidatesByType);
+				}
+			}
+			ReflectionUtils.doWithFields(beanClass, field -> addCandidates(field.getType(), dependencies, candidatesByType),
+					ParallelPreInstantiationBeanFactory::isAutowired);
+			ReflectionUtils.doWithMethods(beanClass, method -> addCandidates(method, dependencies, candidatesByType),
+					ParallelPreInstantiationBeanFactory::isAutowired);
+		}
+		return dependencies;
+	}
+
+	private static boolean isAutowired(Field field) {
+		return AnnotatedElementUtils.hasAnnotation(field, Autowired.class);
+	}
+
+	private static boolean isAutowired(Method method) {
+		return AnnotatedElementUtils.hasAnnotation(method, Autowired.class);
+	}
+
+	private static void addReference(ValueHolder holder, Collection<String> dependencies) {
+		if (holder.getValue() instanceof BeanReference) {
+			dependencies.add(((BeanReference) holder.getValue()).getBeanName());
+		}
+	}
+
+	private void addCandidates(Executable executable, Collection<String> dependencies, Map<Class<?>, String[]> candidatesByType) {
+		for (Class<?> parameterType : executable.getParameterTypes()) {
+			addCandidates(parameterType, dependencies, candidatesByType);
+		}
+	}
+
+	private void addCandidates(Class<?> type, Collection<String> dependencies, Map<Class<?>, String[]> candidatesByType) {
+		if (!BeanUtils.isSimpleProperty(type)) {
+			dependencies.addAll(Arrays.asList(candidatesByType.computeIfAbsent(type, t -> getBeanNamesForType(t, true, false))));
+		}
+	}
+
+	private Class<?> resolveQuietly(RootBeanDefinition mbd, String beanName) {
+		try {
+			return resolveBeanClass(mbd, beanName);
+		} catch (RuntimeException | LinkageError e) {
+			// L'instanciation signalera l'erreur
+			return null;
+		}
+	}
+
+	private static final class InstantiationThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable task) {
+			Thread thread = new Thread(task, "singleton-instantiation-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
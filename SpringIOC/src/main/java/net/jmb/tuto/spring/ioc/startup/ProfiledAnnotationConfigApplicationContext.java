@@ -0,0 +1,73 @@
+package net.jmb.tuto.spring.ioc.startup;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ClassUtils;
+
+/**
+ * <code>AnnotationConfigApplicationContext</code> dont le démarrage est mesuré par un {@link StartupProfiler}
+ */
+public class ProfiledAnnotationConfigApplicationContext extends AnnotationConfigApplicationContext {
+
+	private final ProfiledContextSupport profiling;
+
+	public ProfiledAnnotationConfigApplicationContext(StartupProfiler profiler, Class<?>... componentClasses) {
+		super(newBeanFactory(profiler));
+		this.profiling = new ProfiledContextSupport(profiler);
+		profiler.begin("register");
+		try {
+			register(componentClasses);
+		} finally {
+			profiler.end("register");
+		}
+		refresh();
+	}
+
+	/**
+	 * Le scanner créé par le constructeur parent charge l'index des composants : il est donc chargé (et mesuré) avant
+	 */
+	private static DefaultListableBeanFactory newBeanFactory(StartupProfiler profiler) {
+		profiler.loadComponentIndex(ClassUtils.getDefaultClassLoader());
+		return new DefaultListableBeanFactory();
+	}
+
+	public StartupProfiler getProfiler() {
+		return profiling.getProfiler();
+	}
+
+	@Override
+	public void refresh() {
+		profiling.refresh(super::refresh);
+	}
+
+	@Override
+	protected void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+		super.postProcessBeanFactory(beanFactory);
+		profiling.postProcessBeanFactory(beanFactory);
+	}
+
+	@Override
+	protected void invokeBeanFactoryPostProcessors(ConfigurableListableBeanFactory beanFactory) {
+		profiling.invokeBeanFactoryPostProcessors(() -> super.invokeBeanFactoryPostProcessors(beanFactory));
+	}
+
+	@Override
+	protected void registerBeanPostProcessors(ConfigurableListableBeanFactory beanFactory) {
+		profiling.registerBeanPostProcessors(beanFactory, () -> super.registerBeanPostProcessors(beanFactory));
+	}
+
+	@Override
+	protected void finishBeanFactoryInitialization(ConfigurableListableBeanFactory beanFactory) {
+		profiling.finishBeanFactoryInitialization(() -> super.finishBeanFactoryInitialization(beanFactory));
+	}
+
+	@Override
+	public Resource[] getResources(String locationPattern) throws IOException {
+		return profiling.getResources(locationPattern, super::getResources);
+	}
+
+}
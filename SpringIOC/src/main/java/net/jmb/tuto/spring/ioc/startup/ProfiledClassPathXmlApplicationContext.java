@@ -0,0 +1,88 @@
+package net.jmb.tuto.spring.ioc.startup;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.core.io.Resource;
+
+/**
+ * <code>ClassPathXmlApplicationContext</code> dont le démarrage est mesuré par un {@link StartupProfiler},
+ * lecture de chaque fichier XML comprise
+ */
+public class ProfiledClassPathXmlApplicationContext extends ClassPathXmlApplicationContext {
+
+	private final ProfiledContextSupport profiling;
+
+	public ProfiledClassPathXmlApplicationContext(StartupProfiler profiler, String... configLocations) {
+		super(configLocations, false);
+		this.profiling = new ProfiledContextSupport(profiler);
+		refresh();
+	}
+
+	public StartupProfiler getProfiler() {
+		return profiling.getProfiler();
+	}
+
+	@Override
+	public void refresh() {
+		profiling.refresh(super::refresh);
+	}
+
+	@Override
+	protected void loadBeanDefinitions(XmlBeanDefinitionReader reader) throws IOException {
+		StartupProfiler profiler = profiling.getProfiler();
+		Resource[] configResources = getConfigResources();
+		if (configResources != null) {
+			for (Resource configResource : configResources) {
+				String name = "xml:" + configResource.getDescription();
+				profiler.begin(name);
+				try {
+					reader.loadBeanDefinitions(configResource);
+				} finally {
+					profiler.end(name);
+				}
+			}
+		}
+		String[] configLocations = getConfigLocations();
+		if (configLocations != null) {
+			for (String configLocation : configLocations) {
+				String name = "xml:" + configLocation;
+				profiler.begin(name);
+				try {
+					reader.loadBeanDefinitions(configLocation);
+				} finally {
+					profiler.end(name);
+				}
+			}
+		}
+	}
+
+	@Override
+	protected void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+		super.postProcessBeanFactory(beanFactory);
+		profiling.postProcessBeanFactory(beanFactory);
+	}
+
+	@Override
+	protected void invokeBeanFactoryPostProcessors(ConfigurableListableBeanFactory beanFactory) {
+		profiling.invokeBeanFactoryPostProcessors(() -> super.invokeBeanFactoryPostProcessors(beanFactory));
+	}
+
+	@Override
+	protected void registerBeanPostProcessors(ConfigurableListableBeanFactory beanFactory) {
+		profiling.registerBeanPostProcessors(beanFactory, () -> super.registerBeanPostProcessors(beanFactory));
+	}
+
+	@Override
+	protected void finishBeanFactoryInitialization(ConfigurableListableBeanFactory beanFactory) {
+		profiling.finishBeanFactoryInitialization(() -> super.finishBeanFactoryInitialization(beanFactory));
+	}
+
+	@Override
+	public Resource[] getResources(String locationPattern) throws IOException {
+		return profiling.getResources(locationPattern, super::getResources);
+	}
+
+}
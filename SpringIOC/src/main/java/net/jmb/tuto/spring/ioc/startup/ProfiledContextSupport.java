@@ -0,0 +1,79 @@
+package net.jmb.tuto.spring.ioc.startup;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.io.Resource;
+
+/**
+ * Mesure des phases du refresh, commune aux contextes profilés : chacun redéfinit les méthodes du refresh
+ * en y déléguant l'appel de la méthode parente
+ */
+final class ProfiledContextSupport {
+
+	interface ResourcesLookup {
+
+		Resource[] getResources(String locationPattern) throws IOException;
+	}
+
+	private final StartupProfiler profiler;
+
+	ProfiledContextSupport(StartupProfiler profiler) {
+		this.profiler = profiler;
+	}
+
+	StartupProfiler getProfiler() {
+		return profiler;
+	}
+
+	void refresh(Runnable refresh) {
+		profiler.begin("refresh");
+		try {
+			refresh.run();
+		} finally {
+			profiler.stop();
+		}
+	}
+
+	void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+		profiler.install(beanFactory);
+	}
+
+	void invokeBeanFactoryPostProcessors(Runnable invoke) {
+		phase("invokeBeanFactoryPostProcessors", invoke);
+	}
+
+	void registerBeanPostProcessors(ConfigurableListableBeanFactory beanFactory, Runnable register) {
+		phase("registerBeanPostProcessors", () -> {
+			register.run();
+			profiler.afterBeanPostProcessorsRegistered(beanFactory);
+		});
+	}
+
+	void finishBeanFactoryInitialization(Runnable finish) {
+		phase("preInstantiateSingletons", finish);
+	}
+
+	/**
+	 * Recherche des ressources du classpath, dont celle des classes candidates du scan des composants
+	 */
+	Resource[] getResources(String locationPattern, ResourcesLookup lookup) throws IOException {
+		String name = StartupProfiler.resourcesSpanName(locationPattern);
+		profiler.begin(name);
+		try {
+			return lookup.getResources(locationPattern);
+		} finally {
+			profiler.end(name);
+		}
+	}
+
+	private void phase(String name, Runnable step) {
+		profiler.begin(name);
+		try {
+			step.run();
+		} finally {
+			profiler.end(name);
+		}
+	}
+
+}
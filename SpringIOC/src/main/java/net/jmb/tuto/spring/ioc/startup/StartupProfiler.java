@@ -0,0 +1,310 @@
+package net.jmb.tuto.spring.ioc.startup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.index.CandidateComponentsIndexLoader;
+import org.springframework.core.SpringProperties;
+
+/**
+ * Profilage du démarrage d'un contexte, alimenté par {@link ProfiledAnnotationConfigApplicationContext}
+ * et {@link ProfiledClassPathXmlApplicationContext} :
+ * <ul>
+ * <li>phases du refresh : lecture des fichiers XML, post-processeurs de <code>BeanFactory</code>,
+ * analyse des classes <code>@Configuration</code> et scan des composants (parcours du classpath par paquetage,
+ * ou chargement de l'index <code>META-INF/spring.components</code> lorsqu'il est présent),
+ * enregistrement des <code>BeanPostProcessor</code>'s, pré-instanciation des singletons
+ * <li>création de chaque bean : instanciation (résolution des arguments du constructeur ou de la méthode <code>@Bean</code> comprise),
+ * injection des propriétés, post-traitements des <code>BeanPostProcessor</code>'s avant et après initialisation
+ * (<code>@PostConstruct</code> compris, appelé par <code>CommonAnnotationBeanPostProcessor</code>), méthodes d'initialisation
+ * (<code>afterPropertiesSet</code>, <code>init-method</code>) ; la création des dépendances est imbriquée dans la phase qui l'a provoquée
+ * </ul>
+ * Le résultat est restitué sous forme de rapport trié ({@link #report()}) et de piles "repliées"
+ * ({@link #folded()}, une ligne <code>phase;bean:a;instantiate;bean:b durée_us</code> par pile)
+ * exploitables par flamegraph.pl ou speedscope.
+ * <p>
+ * Seules les créations de beans pendant le refresh sont mesurées.
+ */
+public class StartupProfiler {
+
+	/**
+	 * Propriété système activant le profilage des applications de démonstration : <code>true</code>
+	 * pour le seul rapport, ou chemin du fichier de piles repliées à produire
+	 */
+	public static final String PROPERTY = "startup.profile";
+
+	static final String INSTANTIATE = "instantiate";
+	static final String POPULATE = "populate";
+	static final String BEFORE_INITIALIZATION = "beforeInitialization";
+	static final String INIT_METHODS = "initMethods";
+	static final String AFTER_INITIALIZATION = "afterInitialization";
+	static final String COMPONENT_INDEX = "componentIndex";
+
+	private static final String START_MARKER = StartupProfiler.class.getName() + ".start";
+	private static final String END_MARKER = StartupProfiler.class.getName() + ".end";
+
+	private final List<StartupSpan> roots = Collections.synchronizedList(new ArrayList<>());
+	private final ThreadLocal<Deque<StartupSpan>> stacks = ThreadLocal.withInitial(ArrayDeque::new);
+	private final StartupProfilingBeanPostProcessor leadingPostProcessor = new StartupProfilingBeanPostProcessor(this, true);
+	private final StartupProfilingBeanPostProcessor trailingPostProcessor = new StartupProfilingBeanPostProcessor(this, false);
+	private volatile boolean active = true;
+	private volatile ConfigurableListableBeanFactory beanFactory;
+
+	/**
+	 * Profileur si la propriété système {@link #PROPERTY} est renseignée, <code>null</code> sinon
+	 */
+	public static StartupProfiler fromSystemProperty() {
+		String value = System.getProperty(PROPERTY);
+		return value != null && !value.isEmpty() && !"false".equals(value) ? new StartupProfiler() : null;
+	}
+
+	/**
+	 * Début d'un intervalle sur le thread courant, imbriqué dans l'intervalle en cours
+	 */
+	public void begin(String name) {
+		if (!active) {
+			return;
+		}
+		Deque<StartupSpan> stack = stacks.get();
+		StartupSpan span = new StartupSpan(name, stack.peek());
+		if (span.getParent() == null) {
+			roots.add(span);
+		}
+		stack.push(span);
+	}
+
+	/**
+	 * Fin de l'intervalle nommé et des intervalles restés ouverts à l'intérieur (ex: création de bean en échec)
+	 */
+	public void end(String name) {
+		Deque<StartupSpan> stack = stacks.get();
+		if (stack.stream().noneMatch(span -> span.getName().equals(name))) {
+			return;
+		}
+		StartupSpan span;
+		do {
+			span = stack.pop();
+			span.end();
+		} while (!span.getName().equals(name));
+	}
+
+	/**
+	 * Fin du profilage : les intervalles encore ouverts sont clos, les créations de beans ultérieures ignorées
+	 */
+	public void stop() {
+		active = false;
+		Deque<StartupSpan> stack = stacks.get();
+		while (!stack.isEmpty()) {
+			stack.pop().end();
+		}
+		stacks.remove();
+	}
+
+	/**
+	 * Installation des marqueurs dans la <code>BeanFactory</code> du contexte, avant l'appel de ses post-processeurs
+	 */
+	void install(ConfigurableListableBeanFactory beanFactory) {
+		this.beanFactory = beanFactory;
+		beanFactory.addBeanPostProcessor(leadingPostProcessor);
+		beanFactory.addBeanPostProcessor(trailingPostProcessor);
+		beanFactory.registerSingleton(START_MARKER, new ConfigurationClassMarker.Start(this));
+		beanFactory.registerSingleton(END_MARKER, new ConfigurationClassMarker.End(this));
+	}
+
+	/**
+	 * Replace le marqueur de fin de création après les <code>BeanPostProcessor</code>'s déclarés comme beans
+	 */
+	void afterBeanPostProcessorsRegistered(ConfigurableListableBeanFactory beanFactory) {
+		beanFactory.addBeanPostProcessor(trailingPostProcessor);
+	}
+
+	/**
+	 * Chargement de l'index des composants, au début de la construction d'un contexte annoté
+	 * (en XML, l'index est chargé par le premier <code>&lt;context:component-scan&gt;</code>, au sein de l'intervalle <code>xml:</code>).
+	 * <p>
+	 * Avec l'index, le scan ne parcourt plus le classpath (pas d'intervalle <code>componentScan:paquetage</code>) :
+	 * son coût est le chargement de l'index, mis en cache par class loader et mesuré ici (intervalle <code>componentIndex</code>),
+	 * la recherche des candidats d'un paquetage n'étant plus qu'une lecture de cet index.
+	 */
+	void loadComponentIndex(ClassLoader classLoader) {
+		if (SpringProperties.getFlag(CandidateComponentsIndexLoader.IGNORE_INDEX)) {
+			return;
+		}
+		begin(COMPONENT_INDEX);
+		try {
+			CandidateComponentsIndexLoader.loadIndex(classLoader);
+		} finally {
+			end(COMPONENT_INDEX);
+		}
+	}
+
+	/**
+	 * Nom de l'intervalle de recherche de ressources : <code>componentScan:paquetage</code> pour le scan des classes candidates
+	 */
+	static String resourcesSpanName(String locationPattern) {
+		String classesSuffix = "/**/*.class";
+		if (locationPattern.startsWith("classpath*:") && locationPattern.endsWith(classesSuffix)) {
+			String path = locationPattern.substring("classpath*:".length(), locationPattern.length() - classesSuffix.length());
+			return "componentScan:" + path.replace('/', '.');
+		}
+		return "resources:" + locationPattern;
+	}
+
+	void beginBean(String beanName) {
+		begin(StartupSpan.BEAN_PREFIX + beanName);
+		begin(INSTANTIATE);
+	}
+
+	void beanPhase(String beanName, String phase) {
+		Deque<StartupSpan> stack = stacks.get();
+		StartupSpan current = stack.peek();
+		if (current != null && !current.isBean() && current.getParent() != null
+				&& beanName.equals(current.getParent().getBeanName())) {
+			stack.pop().end();
+			begin(phase);
+		}
+	}
+
+	void endBean(String beanName) {
+		end(StartupSpan.BEAN_PREFIX + beanName);
+	}
+
+	public List<StartupSpan> getRoots() {
+		synchronized (roots) {
+			return new ArrayList<>(roots);
+		}
+	}
+
+	/**
+	 * Créations de beans mesurées, par durée totale décroissante
+	 */
+	public List<StartupSpan> getBeanSpans() {
+		List<StartupSpan> beans = new ArrayList<>();
+		for (StartupSpan root : getRoots()) {
+			collectBeans(root, beans);
+		}
+		beans.sort(Comparator.comparingLong(StartupSpan::getDurationNanos).reversed());
+		return beans;
+	}
+
+	private static void collectBeans(StartupSpan span, List<StartupSpan> beans) {
+		if (span.isBean()) {
+			beans.add(span);
+		}
+		span.getChildren().forEach(child -> collectBeans(child, beans));
+	}
+
+	/**
+	 * Rapport : phases du refresh, beans par durée décroissante, beans définis mais non instanciés au démarrage
+	 */
+	public String report() {
+		StringBuilder report = new StringBuilder("Phases (ms) :\n");
+		for (StartupSpan root : getRoots()) {
+			appendPhases(report, root, 1);
+		}
+
+		report.append("Beans (ms) :\n").append(String.format(Locale.ROOT, "%10s %10s %12s %12s %10s %16s %14s  %s%n",
+				"total", "propre", "dépendances", "instanciation", "injection", "post-traitements", "initialisation", "bean"));
+		Set<String> createdBeans = new HashSet<>();
+		for (StartupSpan bean : getBeanSpans()) {
+			createdBeans.add(bean.getBeanName());
+			report.append(String.format(Locale.ROOT, "%10.3f %10.3f %12.3f %12.3f %10.3f %16.3f %14.3f  %s%n",
+					millis(bean.getDurationNanos()), millis(bean.getDurationNanos() - bean.getDependenciesNanos()),
+					millis(bean.getDependenciesNanos()), millis(bean.getPhaseNanos(INSTANTIATE)),
+					millis(bean.getPhaseNanos(POPULATE)),
+					millis(bean.getPhaseNanos(BEFORE_INITIALIZATION) + bean.getPhaseNanos(AFTER_INITIALIZATION)),
+					millis(bean.getPhaseNanos(INIT_METHODS)), bean.getBeanName()));
+		}
+
+		ConfigurableListableBeanFactory factory = beanFactory;
+		if (factory != null) {
+			List<String> notCreated = new ArrayList<>();
+			for (String beanName : factory.getBeanDefinitionNames()) {
+				if (!createdBeans.contains(beanName)) {
+					BeanDefinition definition = factory.getBeanDefinition(beanName);
+					String reason = definition.isAbstract() ? "abstract"
+							: !definition.isSingleton() ? definition.getScope()
+							: definition.isLazyInit() ? "lazy" : null;
+					if (reason != null) {
+						notCreated.add(beanName + " (" + reason + ")");
+					}
+				}
+			}
+			if (!notCreated.isEmpty()) {
+				report.append("Non instanciés au démarrage : ").append(String.join(", ", notCreated)).append('\n');
+			}
+		}
+		return report.toString();
+	}
+
+	private static void appendPhases(StringBuilder report, StartupSpan span, int depth) {
+		if (span.isBean()) {
+			return;
+		}
+		for (int i = 0; i < depth; i++) {
+			report.append("  ");
+		}
+		report.append(String.format(Locale.ROOT, "%s %.3f%n", span.getName(), millis(span.getDurationNanos())));
+		span.getChildren().forEach(child -> appendPhases(report, child, depth + 1));
+	}
+
+	/**
+	 * Piles repliées : une ligne par intervalle, chemin depuis la racine et durée propre en microsecondes
+	 */
+	public String folded() {
+		StringBuilder folded = new StringBuilder();
+		for (StartupSpan root : getRoots()) {
+			appendFolded(folded, root, "");
+		}
+		return folded.toString();
+	}
+
+	private static void appendFolded(StringBuilder folded, StartupSpan span, String parentPath) {
+		String path = parentPath.isEmpty() ? frame(span) : parentPath + ";" + frame(span);
+		long selfMicros = span.getSelfNanos() / 1000;
+		if (selfMicros > 0) {
+			folded.append(path).append(' ').append(selfMicros).append('\n');
+		}
+		span.getChildren().forEach(child -> appendFolded(folded, child, path));
+	}
+
+	private static String frame(StartupSpan span) {
+		return span.getName().replace(';', '_').replaceAll("\\s", "_");
+	}
+
+	/**
+	 * Restitution pour les applications de démonstration : rapport sur la sortie standard,
+	 * piles repliées dans le fichier désigné par {@link #PROPERTY} le cas échéant
+	 */
+	public void publish() {
+		System.out.print(report());
+		String path = System.getProperty(PROPERTY);
+		if (path != null && !"true".equals(path)) {
+			try {
+				Files.write(Paths.get(path), folded().getBytes(StandardCharsets.UTF_8));
+				System.out.println("Piles repliées : " + path);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1e6;
+	}
+
+}
@@ -0,0 +1,57 @@
+package net.jmb.tuto.spring.ioc.startup;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+
+/**
+ * Marqueurs de création des beans, installés par le {@link StartupProfiler} :
+ * <ul>
+ * <li>en tête de liste (<code>leading</code>) : début de création, fin d'instanciation, début des post-traitements
+ * avant initialisation, fin des méthodes d'initialisation
+ * <li>en fin de liste : début des méthodes d'initialisation, après les post-traitements des autres <code>BeanPostProcessor</code>'s,
+ * et fin de création
+ * </ul>
+ */
+class StartupProfilingBeanPostProcessor implements InstantiationAwareBeanPostProcessor {
+
+	private final StartupProfiler profiler;
+	private final boolean leading;
+
+	StartupProfilingBeanPostProcessor(StartupProfiler profiler, boolean leading) {
+		this.profiler = profiler;
+		this.leading = leading;
+	}
+
+	@Override
+	public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) throws BeansException {
+		if (leading) {
+			profiler.beginBean(beanName);
+		}
+		return null;
+	}
+
+	@Override
+	public boolean postProcessAfterInstantiation(Object bean, String beanName) throws BeansException {
+		if (leading) {
+			profiler.beanPhase(beanName, StartupProfiler.POPULATE);
+		}
+		return true;
+	}
+
+	@Override
+	public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+		profiler.beanPhase(beanName, leading ? StartupProfiler.BEFORE_INITIALIZATION : StartupProfiler.INIT_METHODS);
+		return bean;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+		if (leading) {
+			profiler.beanPhase(beanName, StartupProfiler.AFTER_INITIALIZATION);
+		} else {
+			profiler.endBean(beanName);
+		}
+		return bean;
+	}
+
+}
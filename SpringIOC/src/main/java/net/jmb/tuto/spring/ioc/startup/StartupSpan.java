@@ -0,0 +1,105 @@
+package net.jmb.tuto.spring.ioc.startup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Intervalle de temps mesuré au démarrage d'un contexte (phase du refresh, création d'un bean, phase de création...),
+ * avec ses sous-intervalles
+ */
+public final class StartupSpan {
+
+	static final String BEAN_PREFIX = "bean:";
+
+	private final String name;
+	private final StartupSpan parent;
+	private final long startNanos;
+	private long endNanos = -1;
+	private final List<StartupSpan> children = new ArrayList<>();
+
+	StartupSpan(String name, StartupSpan parent) {
+		this.name = name;
+		this.parent = parent;
+		this.startNanos = System.nanoTime();
+		if (parent != null) {
+			parent.children.add(this);
+		}
+	}
+
+	void end() {
+		if (endNanos < 0) {
+			endNanos = System.nanoTime();
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public StartupSpan getParent() {
+		return parent;
+	}
+
+	public List<StartupSpan> getChildren() {
+		return Collections.unmodifiableList(children);
+	}
+
+	public boolean isBean() {
+		return name.startsWith(BEAN_PREFIX);
+	}
+
+	/**
+	 * Nom du bean créé, <code>null</code> si l'intervalle n'est pas la création d'un bean
+	 */
+	public String getBeanName() {
+		return isBean() ? name.substring(BEAN_PREFIX.length()) : null;
+	}
+
+	/**
+	 * Durée totale, sous-intervalles compris (jusqu'à maintenant si l'intervalle n'est pas terminé)
+	 */
+	public long getDurationNanos() {
+		return (endNanos < 0 ? System.nanoTime() : endNanos) - startNanos;
+	}
+
+	/**
+	 * Durée hors sous-intervalles
+	 */
+	public long getSelfNanos() {
+		long self = getDurationNanos();
+		for (StartupSpan child : children) {
+			self -= child.getDurationNanos();
+		}
+		return self;
+	}
+
+	/**
+	 * Durée des créations de beans imbriquées (dépendances), à quelque profondeur de phase qu'elles se trouvent
+	 */
+	public long getDependenciesNanos() {
+		long dependencies = 0;
+		for (StartupSpan child : children) {
+			dependencies += child.isBean() ? child.getDurationNanos() : child.getDependenciesNanos();
+		}
+		return dependencies;
+	}
+
+	/**
+	 * Durée propre de la phase donnée (hors créations de dépendances), 0 si la phase n'a pas été mesurée
+	 */
+	public long getPhaseNanos(String phase) {
+		for (StartupSpan child : children) {
+			if (child.name.equals(phase)) {
+				return child.getDurationNanos() - child.getDependenciesNanos();
+			}
+		}
+		return 0;
+	}
+
+	@Override
+	public String toString() {
+		return name + " [" + getDurationNanos() / 1000 + "us]";
+	}
+
+}